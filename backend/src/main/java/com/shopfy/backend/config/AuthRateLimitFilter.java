@@ -0,0 +1,162 @@
+package com.shopfy.backend.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopfy.backend.service.AuthRateLimiter;
+import com.shopfy.backend.service.AuthRateLimiter.Rule;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+// Throttles POST /api/auth/login and /api/auth/send-otp before the request reaches AuthController,
+// so rejected attempts never cost a BCrypt check or an email. Runs in the security chain (see SecurityConfig).
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+
+    private static final String LOGIN_PATH = "/api/auth/login";
+    private static final String OTP_PATH = "/api/auth/send-otp";
+    // Login and OTP bodies are a few fields; anything larger is refused rather than let past the contact limit
+    private static final int MAX_BODY_BYTES = 8192;
+
+    private final AuthRateLimiter limiter;
+    private final boolean trustForwardedFor;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public AuthRateLimitFilter(AuthRateLimiter limiter, boolean trustForwardedFor) {
+        this.limiter = limiter;
+        this.trustForwardedFor = trustForwardedFor;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getServletPath();
+        return !"POST".equals(request.getMethod()) || !(LOGIN_PATH.equals(path) || OTP_PATH.equals(path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean login = LOGIN_PATH.equals(request.getServletPath());
+
+        // IP first: it is free to check and stops a flood before the body is read
+        long waitMillis = limiter.tryAcquire(login ? Rule.LOGIN_IP : Rule.OTP_IP, clientIp(request));
+        if (waitMillis > 0) {
+            reject(response, waitMillis);
+            return;
+        }
+
+        // Reads one byte past the limit to tell an oversized body apart without buffering all of it
+        byte[] body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+        if (body.length > MAX_BODY_BYTES) {
+            response.setStatus(HttpStatus.PAYLOAD_TOO_LARGE.value());
+            response.setContentType("text/plain;charset=UTF-8");
+            response.getWriter().write("Request body too large.");
+            return;
+        }
+        CachedBodyRequest cached = new CachedBodyRequest(request, body);
+        String contact = contactOf(cached.body);
+        if (contact != null) {
+            waitMillis = limiter.tryAcquire(login ? Rule.LOGIN_CONTACT : Rule.OTP_CONTACT, contact);
+            if (waitMillis > 0) {
+                reject(response, waitMillis);
+                return;
+            }
+        }
+        chain.doFilter(cached, response);
+    }
+
+    private String clientIp(HttpServletRequest request) {
+        if (trustForwardedFor) {
+            String forwarded = request.getHeader("X-Forwarded-For");
+            if (forwarded != null && !forwarded.isBlank()) {
+                return forwarded.split(",")[0].trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    // contactInfo is the email or phone number in both LoginRequest and OtpRequest
+    private String contactOf(byte[] body) {
+        try {
+            JsonNode contact = objectMapper.readTree(body).get("contactInfo");
+            if (contact == null || !contact.isTextual() || contact.asText().isBlank()) {
+                return null;
+            }
+            return contact.asText().trim().toLowerCase(Locale.ROOT);
+        } catch (IOException e) {
+            return null; // Malformed JSON: let the controller reject it
+        }
+    }
+
+    private void reject(HttpServletResponse response, long waitMillis) throws IOException {
+        long retryAfter = (waitMillis + 999) / 1000;
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", String.valueOf(retryAfter));
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write("Too many attempts. Please try again in " + retryAfter + " seconds.");
+    }
+
+    // Lets the controller read the body again after the filter has parsed it
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The whole body is already in memory, so it is available and complete straight away
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.shopfy.backend.config;
+
+import com.shopfy.backend.service.ImageVariantService;
+import com.shopfy.backend.service.ImageVariantService.Size;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.Resource;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+// Serves /uploads/<name>?size=thumb|medium from the downscaled copy made by ImageVariantService.
+// When the copy does not exist yet the original is served and generation is queued, so old uploads
+// pick up variants the first time a page asks for them.
+public class ImageVariantResolver extends AbstractResourceResolver {
+
+    // Set when the original stands in for a variant that is still being made, so it is not cached for good
+    public static final String VARIANT_PENDING = ImageVariantResolver.class.getName() + ".VARIANT_PENDING";
+
+    private final ImageVariantService imageVariantService;
+
+    public ImageVariantResolver(ImageVariantService imageVariantService) {
+        this.imageVariantService = imageVariantService;
+    }
+
+    @Override
+    protected Resource resolveResourceInternal(HttpServletRequest request, String requestPath,
+            List<? extends Resource> locations, ResourceResolverChain chain) {
+        Resource original = chain.resolveResource(request, requestPath, locations);
+        Size size = request != null ? Size.parse(request.getParameter("size")) : null;
+        if (original == null || size == null) {
+            return original;
+        }
+        try {
+            // Resolved through the chain, so the path is already confined to the upload directory
+            Path originalPath = original.getFile().toPath();
+            if (!imageVariantService.isSource(originalPath)) {
+                return original;
+            }
+            Path variant = imageVariantService.variantPath(originalPath, size);
+            Resource variantResource = chain.resolveResource(request,
+                    requestPath.substring(0, requestPath.length() - originalPath.getFileName().toString().length())
+                            + variant.getFileName(),
+                    locations);
+            if (variantResource == null) {
+                imageVariantService.schedule(originalPath);
+                request.setAttribute(VARIANT_PENDING, Boolean.TRUE);
+                return original;
+            }
+            // Small or flat images (icons, logos) can come out larger as JPEG
+            return variantResource.contentLength() < original.contentLength() ? variantResource : original;
+        } catch (IOException e) {
+            // Not a file on disk; serve as is
+        }
+        return original;
+    }
+
+    @Override
+    protected String resolveUrlPathInternal(String resourceUrlPath, List<? extends Resource> locations,
+            ResourceResolverChain chain) {
+        return chain.resolveUrlPath(resourceUrlPath, locations);
+    }
+}
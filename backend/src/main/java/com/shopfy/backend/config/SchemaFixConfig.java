@@ -24,6 +24,23 @@ public class SchemaFixConfig {
             } catch (Exception e) {
                 System.out.println("Schema Fix Failed (might already be fixed): " + e.getMessage());
             }
+
+            try {
+                // Seed support read watermarks for tickets that predate them, using the old is_read flags
+                int owners = jdbcTemplate.update("UPDATE support_tickets t SET owner_last_read_message_id = "
+                        + "(SELECT COALESCE(MAX(m.message_id), 0) FROM support_messages m "
+                        + "WHERE m.ticket_id = t.ticket_id AND (m.is_read = true OR m.sender_id = t.user_id)) "
+                        + "WHERE owner_last_read_message_id IS NULL");
+                int support = jdbcTemplate.update("UPDATE support_tickets t SET support_last_read_message_id = "
+                        + "(SELECT COALESCE(MAX(m.message_id), 0) FROM support_messages m "
+                        + "WHERE m.ticket_id = t.ticket_id AND (m.is_read = true OR m.sender_id <> t.user_id)) "
+                        + "WHERE support_last_read_message_id IS NULL");
+                if (owners + support > 0) {
+                    System.out.println("Seeded support read watermarks for " + Math.max(owners, support) + " tickets");
+                }
+            } catch (Exception e) {
+                System.out.println("Support watermark backfill skipped: " + e.getMessage());
+            }
         };
     }
 }
@@ -1,21 +1,42 @@
 package com.shopfy.backend.config;
 
+import com.shopfy.backend.service.AuthRateLimiter;
+import com.shopfy.backend.service.JwtService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private AuthRateLimiter authRateLimiter;
+
+    // Only behind a proxy that overwrites X-Forwarded-For; otherwise clients could pick their own rate-limit key
+    @Value("${auth.rate-limit.trust-forwarded-for:false}")
+    private boolean trustForwardedFor;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
+                // Identity comes from the bearer token on every request, never from an HTTP session
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .addFilterBefore(new AuthRateLimitFilter(authRateLimiter, trustForwardedFor),
+                        UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(new JwtAuthenticationFilter(jwtService), UsernamePasswordAuthenticationFilter.class)
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/profile-requests/**").permitAll()
@@ -29,6 +50,7 @@ public class SecurityConfig {
                         .requestMatchers("/api/addresses/**").permitAll()
                         .requestMatchers("/api/support/**").permitAll()
                         .requestMatchers("/api/content/**").permitAll()
+                        .requestMatchers("/ws/support/**").permitAll()
                         .requestMatchers("/uploads/**").permitAll()
                         .requestMatchers("/error").permitAll()
                         .anyRequest().authenticated());
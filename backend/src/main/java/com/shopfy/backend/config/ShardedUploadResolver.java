@@ -0,0 +1,30 @@
+package com.shopfy.backend.config;
+
+import com.shopfy.backend.service.FileStorageService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.Resource;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import java.util.List;
+
+// Keeps /uploads/<name> URLs saved before the sharded layout working: a bare name that is not at the top
+// of the upload directory is looked up in its shard (ab/cd/<name>) instead.
+public class ShardedUploadResolver extends AbstractResourceResolver {
+
+    @Override
+    protected Resource resolveResourceInternal(HttpServletRequest request, String requestPath,
+            List<? extends Resource> locations, ResourceResolverChain chain) {
+        Resource resolved = chain.resolveResource(request, requestPath, locations);
+        if (resolved == null && requestPath.indexOf('/') < 0) {
+            resolved = chain.resolveResource(request, FileStorageService.shardedPath(requestPath), locations);
+        }
+        return resolved;
+    }
+
+    @Override
+    protected String resolveUrlPathInternal(String resourceUrlPath, List<? extends Resource> locations,
+            ResourceResolverChain chain) {
+        return chain.resolveUrlPath(resourceUrlPath, locations);
+    }
+}
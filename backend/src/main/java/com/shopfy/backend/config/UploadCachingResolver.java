@@ -0,0 +1,70 @@
+package com.shopfy.backend.config;
+
+import com.shopfy.backend.service.HotFileCache;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+// First resolver for /uploads/**. Upload URLs never change content (the name is the SHA-256 of the bytes,
+// or a UUID for older files), so responses are cacheable for a year without revalidation. The exception is
+// an original standing in for a pending ?size= variant, which must be fetched again once the variant exists.
+// Small files are answered from HotFileCache instead of disk.
+public class UploadCachingResolver extends AbstractResourceResolver {
+
+    private static final String IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable()
+            .getHeaderValue();
+    private static final String REVALIDATE = CacheControl.noCache().cachePublic().getHeaderValue();
+
+    private final HotFileCache hotFileCache;
+
+    public UploadCachingResolver(HotFileCache hotFileCache) {
+        this.hotFileCache = hotFileCache;
+    }
+
+    @Override
+    protected Resource resolveResourceInternal(HttpServletRequest request, String requestPath,
+            List<? extends Resource> locations, ResourceResolverChain chain) {
+        // In-progress uploads and variants
+        if (requestPath.startsWith(".tmp/") || requestPath.endsWith(".part")) {
+            return null;
+        }
+        Resource resolved = chain.resolveResource(request, requestPath, locations);
+        if (resolved == null || request == null) {
+            return resolved;
+        }
+
+        // Set here because the handler only applies one Cache-Control to every response
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            HttpServletResponse response = servletAttributes.getResponse();
+            if (response != null) {
+                response.setHeader(HttpHeaders.CACHE_CONTROL,
+                        request.getAttribute(ImageVariantResolver.VARIANT_PENDING) != null ? REVALIDATE : IMMUTABLE);
+            }
+        }
+
+        try {
+            Resource cached = hotFileCache.get(resolved.getFile().toPath());
+            return cached != null ? cached : resolved;
+        } catch (IOException e) {
+            return resolved;
+        }
+    }
+
+    @Override
+    protected String resolveUrlPathInternal(String resourceUrlPath, List<? extends Resource> locations,
+            ResourceResolverChain chain) {
+        return chain.resolveUrlPath(resourceUrlPath, locations);
+    }
+}
@@ -1,16 +1,60 @@
 package com.shopfy.backend.config;
 
+import com.shopfy.backend.service.HotFileCache;
+import com.shopfy.backend.service.ImageVariantService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.PathResourceResolver;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.regex.Pattern;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private static final Pattern CONTENT_HASH = Pattern.compile("[0-9a-f]{64}[._]");
+
+    @Value("${uploads.dir:uploads}")
+    private String uploadDir;
+
+    @Autowired
+    private ImageVariantService imageVariantService;
+
+    @Autowired
+    private HotFileCache hotFileCache;
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        // Map /uploads/** URL to local uploads directory
+        // Map /uploads/** URL to local uploads directory. The resolution cache is off because it is keyed
+        // by path alone and ?size= picks a different file for the same path.
         registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:uploads/");
+                .addResourceLocations("file:" + Paths.get(uploadDir).toAbsolutePath().normalize() + "/")
+                .setUseLastModified(true)
+                .setEtagGenerator(WebConfig::uploadEtag)
+                .resourceChain(false)
+                .addResolver(new UploadCachingResolver(hotFileCache))
+                .addResolver(new ImageVariantResolver(imageVariantService))
+                .addResolver(new ShardedUploadResolver())
+                .addResolver(new PathResourceResolver());
+    }
+
+    // Strong ETag: the content hash in the file name (variants carry it too, e.g. <hash>_thumb),
+    // or length and modification time for files named before content addressing
+    private static String uploadEtag(Resource resource) {
+        String name = resource.getFilename();
+        if (name != null && CONTENT_HASH.matcher(name).lookingAt()) {
+            return "\"" + name.substring(0, name.lastIndexOf('.')) + "\"";
+        }
+        try {
+            return "\"" + Long.toHexString(resource.contentLength()) + "-" + Long.toHexString(resource.lastModified())
+                    + "\"";
+        } catch (IOException e) {
+            return null;
+        }
     }
 }
@@ -0,0 +1,23 @@
+package com.shopfy.backend.config;
+
+import com.shopfy.backend.controller.SupportChatSocketHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    @Autowired
+    private SupportChatSocketHandler supportChatSocketHandler;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        // One room per ticket: /ws/support/{ticketId}
+        registry.addHandler(supportChatSocketHandler, "/ws/support/*")
+                .setAllowedOrigins("*");
+    }
+}
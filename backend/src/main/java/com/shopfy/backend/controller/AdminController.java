@@ -3,11 +3,16 @@ package com.shopfy.backend.controller;
 import com.shopfy.backend.entity.User;
 import com.shopfy.backend.entity.Role;
 import com.shopfy.backend.service.AdminService;
+import com.shopfy.backend.service.AnalyticsService;
+import com.shopfy.backend.service.AuthRateLimiter;
+import com.shopfy.backend.service.FileStorageService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -19,11 +24,28 @@ public class AdminController {
     @Autowired
     private AdminService adminService;
 
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private AuthRateLimiter authRateLimiter;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    // Without a role this returns every CUSTOMER and STORE_OWNER grouped by role;
+    // with a role it returns one page and a nextCursor for the following page
     @GetMapping("/users")
-    public ResponseEntity<?> getAllUsers() {
+    public ResponseEntity<?> getAllUsers(@RequestParam(required = false) Role role,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(defaultValue = "asc") String sort) {
         try {
-            Map<String, List<Map<String, Object>>> usersByRole = adminService.getUsersByRole();
-            return ResponseEntity.ok(usersByRole);
+            if (role != null) {
+                boolean newestFirst = "desc".equalsIgnoreCase(sort);
+                return ResponseEntity.ok(adminService.getUsersPage(role, cursor, limit, newestFirst));
+            }
+            return ResponseEntity.ok(adminService.getUsersByRole());
         } catch (Exception e) {
             System.err.println("Error in getAllUsers: " + e.getMessage());
             e.printStackTrace();
@@ -32,10 +54,25 @@ public class AdminController {
         }
     }
 
+    // Prefix search by name, email or mobile number, e.g. ?q=jo sm or ?q=98765
+    @GetMapping("/users/search")
+    public ResponseEntity<?> searchUsers(@RequestParam String q,
+            @RequestParam(required = false) Role role,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(adminService.searchUsers(q, role, limit));
+        } catch (Exception e) {
+            System.err.println("Error in searchUsers: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to search users: " + e.getMessage()));
+        }
+    }
+
     @GetMapping("/users/{userId}")
-    public ResponseEntity<?> getUserDetails(@PathVariable Long userId) {
+    public ResponseEntity<?> getUserDetails(@PathVariable Long userId,
+            @RequestParam(defaultValue = "10") int recentOrders) {
         try {
-            Map<String, Object> userDetails = adminService.getUserDetails(userId);
+            Map<String, Object> userDetails = adminService.getUserDetails(userId, recentOrders);
             return ResponseEntity.ok(userDetails);
         } catch (Exception e) {
             System.err.println("Error in getUserDetails: " + e.getMessage());
@@ -45,6 +82,33 @@ public class AdminController {
         }
     }
 
+    // Full order history, newest first; pass nextCursor back as cursor for the next page
+    @GetMapping("/users/{userId}/orders")
+    public ResponseEntity<?> getUserOrders(@PathVariable Long userId,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            return ResponseEntity.ok(adminService.getUserOrders(userId, cursor, limit));
+        } catch (Exception e) {
+            System.err.println("Error in getUserOrders: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to fetch user orders: " + e.getMessage()));
+        }
+    }
+
+    @PostMapping("/broadcast")
+    public ResponseEntity<?> broadcast(@RequestBody Map<String, String> payload) {
+        try {
+            Role role = Role.valueOf(payload.get("role"));
+            int recipients = adminService.broadcast(role, payload.get("message"));
+            return ResponseEntity.ok(Map.of("recipients", recipients));
+        } catch (Exception e) {
+            System.err.println("Error in broadcast: " + e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Failed to send broadcast: " + e.getMessage()));
+        }
+    }
+
     @GetMapping("/stats")
     public ResponseEntity<?> getStats() {
         try {
@@ -57,4 +121,44 @@ public class AdminController {
                     .body(Map.of("error", "Failed to fetch stats: " + e.getMessage()));
         }
     }
+
+    @GetMapping("/cache-stats")
+    public ResponseEntity<?> getCacheStats() {
+        try {
+            return ResponseEntity.ok(adminService.getCacheStats());
+        } catch (Exception e) {
+            System.err.println("Error in getCacheStats: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to fetch cache stats: " + e.getMessage()));
+        }
+    }
+
+    // Allowed/rejected counts for the login and send-otp throttles since startup
+    @GetMapping("/rate-limits")
+    public ResponseEntity<?> getRateLimitStats() {
+        return ResponseEntity.ok(authRateLimiter.getStats());
+    }
+
+    @GetMapping("/storage-stats")
+    public ResponseEntity<?> getStorageStats() {
+        return ResponseEntity.ok(fileStorageService.getStats());
+    }
+
+    // Ad-hoc breakdowns, e.g. ?fact=items&groupBy=store,category,week&filter=status:DELIVERED|SHIPPED
+    @GetMapping("/analytics")
+    public ResponseEntity<?> getAnalytics(@RequestParam(defaultValue = "orders") String fact,
+            @RequestParam(defaultValue = "") List<String> groupBy,
+            @RequestParam(required = false) List<String> filter,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "100") int limit) {
+        try {
+            return ResponseEntity.ok(analyticsService.query(fact, groupBy,
+                    filter != null ? filter : List.of(), from, to, limit));
+        } catch (Exception e) {
+            System.err.println("Error in getAnalytics: " + e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Failed to run analytics query: " + e.getMessage()));
+        }
+    }
 }
@@ -49,7 +49,7 @@ public class AuthController {
             @RequestHeader(value = "User-Agent", required = false) String userAgent) {
         try {
             AuthResponse response = authService.login(request);
-            // Record login session
+            // Queued for the background session writer; does not touch the database here
             loginSessionService.recordLogin(response.getUserId(), ipAddress, userAgent);
             return ResponseEntity.ok(response);
         } catch (RuntimeException e) {
@@ -1,10 +1,12 @@
 package com.shopfy.backend.controller;
 
 import com.shopfy.backend.dto.AddToCartRequest;
+import com.shopfy.backend.dto.AuthenticatedUser;
 import com.shopfy.backend.dto.CartResponse;
 import com.shopfy.backend.service.CartService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -15,28 +17,31 @@ public class CartController {
     @Autowired
     private CartService cartService;
 
+    // The cart owner comes from the bearer token; userId is only read for clients that do not send one yet
     @PostMapping("/add")
-    public ResponseEntity<String> addToCart(@RequestParam Long userId,
-            @RequestBody AddToCartRequest request) {
-        cartService.addToCart(userId, request);
+    public ResponseEntity<String> addToCart(@AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam(required = false) Long userId, @RequestBody AddToCartRequest request) {
+        cartService.addToCart(AuthenticatedUser.userId(principal, userId), request);
         return ResponseEntity.ok("Item added to cart");
     }
 
     @DeleteMapping("/items/{itemId}")
-    public ResponseEntity<Void> removeFromCart(@RequestParam Long userId, @PathVariable Long itemId) {
-        cartService.removeFromCart(userId, itemId);
+    public ResponseEntity<Void> removeFromCart(@AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam(required = false) Long userId, @PathVariable Long itemId) {
+        cartService.removeFromCart(AuthenticatedUser.userId(principal, userId), itemId);
         return ResponseEntity.ok().build();
     }
 
     @PutMapping("/items/{itemId}")
-    public ResponseEntity<Void> updateItemQuantity(@RequestParam Long userId, @PathVariable Long itemId,
-            @RequestParam int quantity) {
-        cartService.updateCartItemQuantity(userId, itemId, quantity);
+    public ResponseEntity<Void> updateItemQuantity(@AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam(required = false) Long userId, @PathVariable Long itemId, @RequestParam int quantity) {
+        cartService.updateCartItemQuantity(AuthenticatedUser.userId(principal, userId), itemId, quantity);
         return ResponseEntity.ok().build();
     }
 
     @GetMapping
-    public ResponseEntity<CartResponse> getCart(@RequestParam Long userId) {
-        return ResponseEntity.ok(cartService.getCart(userId));
+    public ResponseEntity<CartResponse> getCart(@AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam(required = false) Long userId) {
+        return ResponseEntity.ok(cartService.getCart(AuthenticatedUser.userId(principal, userId)));
     }
 }
@@ -1,6 +1,7 @@
 package com.shopfy.backend.controller;
 
 import com.shopfy.backend.entity.LoginSession;
+import com.shopfy.backend.service.LoginRollupService;
 import com.shopfy.backend.service.LoginSessionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -17,17 +18,36 @@ public class LoginSessionController {
     @Autowired
     private LoginSessionService loginSessionService;
 
+    @Autowired
+    private LoginRollupService loginRollupService;
+
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<LoginSession>> getUserSessions(@PathVariable Long userId) {
-        List<LoginSession> sessions = loginSessionService.getUserSessions(userId);
+    public ResponseEntity<List<LoginSession>> getUserSessions(@PathVariable Long userId,
+            @RequestParam(defaultValue = "50") int limit) {
+        List<LoginSession> sessions = loginSessionService.getUserSessions(userId, limit);
         return ResponseEntity.ok(sessions);
     }
 
+    // Totals and per-day activity for the last `days` days, read from the daily rollups
+    @GetMapping("/user/{userId}/summary")
+    public ResponseEntity<?> getUserSummary(@PathVariable Long userId, @RequestParam(defaultValue = "30") int days) {
+        try {
+            return ResponseEntity.ok(loginRollupService.getUserSummary(userId, Math.max(1, Math.min(days, 366))));
+        } catch (Exception e) {
+            System.err.println("Error in getUserSummary: " + e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", "Failed to load login summary: " + e.getMessage()));
+        }
+    }
+
+    // Recorded asynchronously; the session shows as closed once the writer has flushed
     @PostMapping("/logout")
-    public ResponseEntity<LoginSession> recordLogout(@RequestBody Map<String, Long> payload) {
-        Long userId = payload.get("userId");
-        LoginSession session = loginSessionService.recordLogout(userId);
-        return ResponseEntity.ok(session);
+    public ResponseEntity<?> recordLogout(@RequestBody Map<String, Long> payload) {
+        try {
+            loginSessionService.recordLogout(payload.get("userId"));
+            return ResponseEntity.accepted().body(Map.of("message", "Logout recorded"));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     @GetMapping("/active/{userId}")
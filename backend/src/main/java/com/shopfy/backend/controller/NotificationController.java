@@ -1,11 +1,11 @@
 package com.shopfy.backend.controller;
 
+import com.shopfy.backend.dto.AuthenticatedUser;
 import com.shopfy.backend.entity.Notification;
-import com.shopfy.backend.entity.User;
 import com.shopfy.backend.repository.NotificationRepository;
-import com.shopfy.backend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -18,14 +18,12 @@ public class NotificationController {
     @Autowired
     private NotificationRepository notificationRepository;
 
-    @Autowired
-    private UserRepository userRepository;
-
+    // Polled by every logged-in page, so it queries by recipient id straight from the token
     @GetMapping("/unread")
-    public ResponseEntity<List<Notification>> getUnreadNotifications(@RequestParam Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        return ResponseEntity.ok(notificationRepository.findByRecipientAndIsReadFalseOrderByCreatedAtDesc(user));
+    public ResponseEntity<List<Notification>> getUnreadNotifications(
+            @AuthenticationPrincipal AuthenticatedUser principal, @RequestParam(required = false) Long userId) {
+        return ResponseEntity.ok(notificationRepository.findByRecipientUserIdAndIsReadFalseOrderByCreatedAtDesc(
+                AuthenticatedUser.userId(principal, userId)));
     }
 
     @PutMapping("/{id}/read")
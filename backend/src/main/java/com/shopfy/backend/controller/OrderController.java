@@ -1,9 +1,12 @@
 package com.shopfy.backend.controller;
 
+import com.shopfy.backend.dto.AuthenticatedUser;
 import com.shopfy.backend.entity.Order;
+import com.shopfy.backend.repository.StoreRepository;
 import com.shopfy.backend.service.OrderService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -17,25 +20,34 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private StoreRepository storeRepository;
+
     @PostMapping("/place")
     public ResponseEntity<String> placeOrder(
-            @RequestParam Long userId,
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam(required = false) Long userId,
             @RequestParam Long storeId,
             @RequestParam String address,
             @RequestParam String paymentMethod) {
 
-        Long orderId = orderService.placeOrder(userId, storeId, address, paymentMethod);
+        // storeId here is the store being ordered from, not the caller's own store
+        Long orderId = orderService.placeOrder(AuthenticatedUser.userId(principal, userId), storeId, address,
+                paymentMethod);
         return ResponseEntity.ok("Order placed successfully. Order ID: " + orderId);
     }
 
     @GetMapping("/customer")
-    public ResponseEntity<List<Order>> getCustomerOrders(@RequestParam Long userId) {
-        return ResponseEntity.ok(orderService.getCustomerOrders(userId));
+    public ResponseEntity<List<Order>> getCustomerOrders(@AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam(required = false) Long userId) {
+        return ResponseEntity.ok(orderService.getCustomerOrders(AuthenticatedUser.userId(principal, userId)));
     }
 
     @GetMapping("/store")
-    public ResponseEntity<List<Order>> getStoreOrders(@RequestParam Long storeId) {
-        return ResponseEntity.ok(orderService.getStoreOrders(storeId));
+    public ResponseEntity<List<Order>> getStoreOrders(@AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam(required = false) Long storeId) {
+        return ResponseEntity.ok(orderService.getStoreOrders(AuthenticatedUser.storeId(principal, storeId,
+                storeRepository::findStoreIdByOwnerId)));
     }
 
     @PutMapping("/{orderId}/status")
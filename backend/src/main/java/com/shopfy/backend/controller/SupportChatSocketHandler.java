@@ -0,0 +1,77 @@
+package com.shopfy.backend.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopfy.backend.service.SupportChatService;
+import com.shopfy.backend.service.SupportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.util.Map;
+
+// WebSocket endpoint /ws/support/{ticketId}: pushes new ticket messages to everyone in the room
+@Component
+public class SupportChatSocketHandler extends TextWebSocketHandler {
+
+    @Autowired
+    private SupportChatService supportChatService;
+
+    @Autowired
+    private SupportService supportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private static final String TICKET_ID = "ticketId";
+    private static final String ROOM_SESSION = "roomSession";
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        Long ticketId = parseTicketId(session);
+        if (ticketId == null || !supportService.ticketExists(ticketId)) {
+            session.close(CloseStatus.BAD_DATA.withReason("Ticket not found"));
+            return;
+        }
+        session.getAttributes().put(TICKET_ID, ticketId);
+        session.getAttributes().put(ROOM_SESSION, supportChatService.join(ticketId, session));
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+        Long ticketId = (Long) session.getAttributes().get(TICKET_ID);
+        WebSocketSession roomSession = (WebSocketSession) session.getAttributes().get(ROOM_SESSION);
+        try {
+            // Same as POST /api/support/tickets/{ticketId}/messages; the saved message is broadcast to the room
+            JsonNode payload = objectMapper.readTree(message.getPayload());
+            supportService.addMessage(ticketId, payload.get("senderId").asLong(), payload.get("content").asText());
+        } catch (Exception e) {
+            roomSession.sendMessage(new TextMessage(objectMapper.writeValueAsString(
+                    Map.of("error", "Failed to send message: " + e.getMessage()))));
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        Long ticketId = (Long) session.getAttributes().get(TICKET_ID);
+        WebSocketSession roomSession = (WebSocketSession) session.getAttributes().get(ROOM_SESSION);
+        if (ticketId != null && roomSession != null) {
+            supportChatService.leave(ticketId, roomSession);
+        }
+    }
+
+    private Long parseTicketId(WebSocketSession session) {
+        if (session.getUri() == null) {
+            return null;
+        }
+        String path = session.getUri().getPath();
+        try {
+            return Long.parseLong(path.substring(path.lastIndexOf('/') + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
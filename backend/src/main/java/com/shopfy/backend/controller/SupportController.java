@@ -1,12 +1,20 @@
 package com.shopfy.backend.controller;
 
+import com.shopfy.backend.dto.SupportQueueItem;
+import com.shopfy.backend.dto.SupportSearchHit;
+import com.shopfy.backend.dto.SupportTicketSummary;
 import com.shopfy.backend.entity.SupportMessage;
 import com.shopfy.backend.entity.SupportTicket;
+import com.shopfy.backend.service.SupportQueueService;
+import com.shopfy.backend.service.SupportSearchService;
 import com.shopfy.backend.service.SupportService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -18,6 +26,12 @@ public class SupportController {
     @Autowired
     private SupportService supportService;
 
+    @Autowired
+    private SupportQueueService supportQueueService;
+
+    @Autowired
+    private SupportSearchService supportSearchService;
+
     @PostMapping("/tickets")
     public ResponseEntity<SupportTicket> createTicket(@RequestParam Long userId,
             @RequestParam(required = false) String subject) {
@@ -32,18 +46,69 @@ public class SupportController {
     }
 
     @GetMapping("/tickets")
-    public ResponseEntity<List<SupportTicket>> getTickets(@RequestParam(required = false) Long userId) {
+    public ResponseEntity<List<SupportTicketSummary>> getTickets(@RequestParam(required = false) Long userId,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime beforeUpdatedAt,
+            @RequestParam(required = false) Long beforeTicketId,
+            @RequestParam(defaultValue = "50") int limit) {
         if (userId != null) {
             return ResponseEntity.ok(supportService.getUserTickets(userId));
         } else {
-            // Admin: get all
-            return ResponseEntity.ok(supportService.getAllTickets());
+            // Admin: keyset paginated queue, newest activity first
+            return ResponseEntity.ok(supportService.getAllTickets(beforeUpdatedAt, beforeTicketId, limit));
         }
     }
 
     @GetMapping("/tickets/{ticketId}/messages")
-    public ResponseEntity<List<SupportMessage>> getMessages(@PathVariable Long ticketId) {
-        return ResponseEntity.ok(supportService.getTicketMessages(ticketId));
+    public ResponseEntity<List<SupportMessage>> getMessages(@PathVariable Long ticketId,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer limit) {
+        if (beforeId == null && afterId == null && limit == null) {
+            // Full history (older clients)
+            return ResponseEntity.ok(supportService.getTicketMessages(ticketId));
+        }
+        return ResponseEntity.ok(supportService.getTicketMessages(ticketId, beforeId, afterId,
+                limit != null ? limit : 50));
+    }
+
+    // Admin search over ticket subjects and messages: words, "exact phrases" and prefix* terms
+    @GetMapping("/search")
+    public ResponseEntity<List<SupportSearchHit>> search(@RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(supportSearchService.search(q, Math.min(Math.max(limit, 1), 100)));
+    }
+
+    // Admin support desk queue, most urgent SLA first
+    @GetMapping("/queue")
+    public ResponseEntity<List<SupportQueueItem>> getQueue(@RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(supportQueueService.peek(limit));
+    }
+
+    @PostMapping("/queue/next")
+    public ResponseEntity<SupportQueueItem> claimNext(@RequestParam Long adminId) {
+        return supportQueueService.claimNext(adminId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.noContent().build());
+    }
+
+    @PostMapping("/queue/{ticketId}/claim")
+    public ResponseEntity<?> claimTicket(@PathVariable Long ticketId, @RequestParam Long adminId) {
+        try {
+            return ResponseEntity.ok(supportQueueService.claim(ticketId, adminId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/queue/{ticketId}/release")
+    public ResponseEntity<?> releaseTicket(@PathVariable Long ticketId, @RequestParam Long adminId) {
+        try {
+            supportQueueService.release(ticketId, adminId);
+            return ResponseEntity.ok().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
     }
 
     @PutMapping("/tickets/{ticketId}/read")
@@ -0,0 +1,102 @@
+package com.shopfy.backend.dto;
+
+import com.shopfy.backend.entity.Order;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Order row for admin user pages, projected straight from the query (see OrderRepository) instead of
+// serializing the full Order -> Store -> User graph. Item lines are attached in one follow-up query per page.
+public class AdminOrderSummary {
+    private Long orderId;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private Order.OrderStatus status;
+    private BigDecimal totalAmount;
+    private String paymentMethod;
+    private Long storeId;
+    private String storeName;
+    private Long customerId;
+    private String customerName;
+    private List<Line> items = new ArrayList<>();
+
+    public static class Line {
+        private String productName;
+        private int quantity;
+
+        public Line(String productName, int quantity) {
+            this.productName = productName;
+            this.quantity = quantity;
+        }
+
+        public String getProductName() {
+            return productName;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+    }
+
+    public AdminOrderSummary(Long orderId, LocalDateTime createdAt, LocalDateTime updatedAt,
+            Order.OrderStatus status, BigDecimal totalAmount, String paymentMethod, Long storeId, String storeName,
+            Long customerId, String customerFirstName, String customerLastName) {
+        this.orderId = orderId;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.status = status;
+        this.totalAmount = totalAmount;
+        this.paymentMethod = paymentMethod;
+        this.storeId = storeId;
+        this.storeName = storeName;
+        this.customerId = customerId;
+        this.customerName = ((customerFirstName != null ? customerFirstName : "") + " "
+                + (customerLastName != null ? customerLastName : "")).trim();
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public Order.OrderStatus getStatus() {
+        return status;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public String getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public Long getStoreId() {
+        return storeId;
+    }
+
+    public String getStoreName() {
+        return storeName;
+    }
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public List<Line> getItems() {
+        return items;
+    }
+}
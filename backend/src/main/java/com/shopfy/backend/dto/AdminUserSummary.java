@@ -0,0 +1,61 @@
+package com.shopfy.backend.dto;
+
+import com.shopfy.backend.entity.Role;
+
+import java.time.LocalDateTime;
+
+// Admin user list row with its order count, built by one grouped query per role (see UserRepository)
+public class AdminUserSummary {
+    private Long userId;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private String mobileNumber;
+    private Role role;
+    private LocalDateTime createdAt;
+    private long orderCount;
+
+    public AdminUserSummary(Long userId, String firstName, String lastName, String email, String mobileNumber,
+            Role role, LocalDateTime createdAt, Long orderCount) {
+        this.userId = userId;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.mobileNumber = mobileNumber;
+        this.role = role;
+        this.createdAt = createdAt;
+        this.orderCount = orderCount != null ? orderCount : 0;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getMobileNumber() {
+        return mobileNumber;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+}
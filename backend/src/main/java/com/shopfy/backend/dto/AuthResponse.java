@@ -7,7 +7,7 @@ import lombok.Data;
 @Data
 @AllArgsConstructor
 public class AuthResponse {
-    private String token; // For now, maybe just a session ID or dummy string if JWT not fully set up
+    private String token; // Signed JWT, sent back as "Authorization: Bearer <token>"
     private String message;
     private String userName;
     private Role role;
@@ -0,0 +1,64 @@
+package com.shopfy.backend.dto;
+
+import com.shopfy.backend.entity.Role;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+// Caller identity taken from a verified JWT (see JwtAuthenticationFilter); handlers receive it with
+// @AuthenticationPrincipal instead of loading the user
+public class AuthenticatedUser {
+    private final Long userId;
+    private final Role role;
+    private final Long storeId;
+
+    public AuthenticatedUser(Long userId, Role role, Long storeId) {
+        this.userId = userId;
+        this.role = role;
+        this.storeId = storeId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    public Long getStoreId() {
+        return storeId;
+    }
+
+    // The caller's own user id: from the token when there is one, otherwise the legacy request parameter
+    public static Long userId(AuthenticatedUser principal, Long requested) {
+        if (principal != null) {
+            return principal.getUserId();
+        }
+        if (requested == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Authentication required");
+        }
+        return requested;
+    }
+
+    // The caller's own store: from the token's claim, or looked up for a store owner whose token predates
+    // the store. The request parameter is only honoured for legacy calls without a token.
+    public static Long storeId(AuthenticatedUser principal, Long requested, Function<Long, Optional<Long>> storeOfOwner) {
+        if (principal == null) {
+            if (requested == null) {
+                throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Authentication required");
+            }
+            return requested;
+        }
+        if (principal.getStoreId() != null) {
+            return principal.getStoreId();
+        }
+        if (principal.getRole() != Role.STORE_OWNER) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Only store owners have a store");
+        }
+        return storeOfOwner.apply(principal.getUserId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Store not found for this owner"));
+    }
+}
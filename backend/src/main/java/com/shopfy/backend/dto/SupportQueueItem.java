@@ -0,0 +1,51 @@
+package com.shopfy.backend.dto;
+
+import java.time.LocalDateTime;
+
+// Snapshot of a ticket waiting in the admin support queue
+public class SupportQueueItem {
+    private Long ticketId;
+    private LocalDateTime waitingSince;
+    private LocalDateTime slaDeadline;
+    private boolean firstResponse;
+    private Long claimedBy;
+    private LocalDateTime claimExpiresAt;
+
+    public SupportQueueItem(Long ticketId, LocalDateTime waitingSince, LocalDateTime slaDeadline,
+            boolean firstResponse, Long claimedBy, LocalDateTime claimExpiresAt) {
+        this.ticketId = ticketId;
+        this.waitingSince = waitingSince;
+        this.slaDeadline = slaDeadline;
+        this.firstResponse = firstResponse;
+        this.claimedBy = claimedBy;
+        this.claimExpiresAt = claimExpiresAt;
+    }
+
+    public Long getTicketId() {
+        return ticketId;
+    }
+
+    public LocalDateTime getWaitingSince() {
+        return waitingSince;
+    }
+
+    public LocalDateTime getSlaDeadline() {
+        return slaDeadline;
+    }
+
+    public boolean isFirstResponse() {
+        return firstResponse;
+    }
+
+    public Long getClaimedBy() {
+        return claimedBy;
+    }
+
+    public LocalDateTime getClaimExpiresAt() {
+        return claimExpiresAt;
+    }
+
+    public boolean isOverdue() {
+        return slaDeadline.isBefore(LocalDateTime.now());
+    }
+}
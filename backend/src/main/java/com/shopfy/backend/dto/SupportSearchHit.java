@@ -0,0 +1,32 @@
+package com.shopfy.backend.dto;
+
+// One ticket matching a support search, with the best matching text highlighted using <mark>
+public class SupportSearchHit {
+    private Long ticketId;
+    private String subject;
+    private String snippet;
+    private int matchCount;
+
+    public SupportSearchHit(Long ticketId, String subject, String snippet, int matchCount) {
+        this.ticketId = ticketId;
+        this.subject = subject;
+        this.snippet = snippet;
+        this.matchCount = matchCount;
+    }
+
+    public Long getTicketId() {
+        return ticketId;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public String getSnippet() {
+        return snippet;
+    }
+
+    public int getMatchCount() {
+        return matchCount;
+    }
+}
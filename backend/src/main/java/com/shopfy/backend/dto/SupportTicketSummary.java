@@ -0,0 +1,99 @@
+package com.shopfy.backend.dto;
+
+import com.shopfy.backend.entity.SupportTicket;
+
+import java.time.LocalDateTime;
+
+// Ticket list row built by a single query (see SupportTicketRepository), without loading messages
+public class SupportTicketSummary {
+    private Long ticketId;
+    private String subject;
+    private SupportTicket.TicketStatus status;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private TicketUser user;
+    private long unreadCount;
+    private String lastMessagePreview;
+    private LocalDateTime lastMessageAt;
+
+    public SupportTicketSummary(Long ticketId, String subject, SupportTicket.TicketStatus status,
+            LocalDateTime createdAt, LocalDateTime updatedAt, Long userId, String firstName, String lastName,
+            String email, Long unreadCount, String lastMessagePreview, LocalDateTime lastMessageAt) {
+        this.ticketId = ticketId;
+        this.subject = subject;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.user = new TicketUser(userId, firstName, lastName, email);
+        this.unreadCount = unreadCount != null ? unreadCount : 0;
+        this.lastMessagePreview = lastMessagePreview;
+        this.lastMessageAt = lastMessageAt;
+    }
+
+    // Same shape as the "user" object on SupportTicket so existing clients keep working
+    public static class TicketUser {
+        private Long userId;
+        private String firstName;
+        private String lastName;
+        private String email;
+
+        public TicketUser(Long userId, String firstName, String lastName, String email) {
+            this.userId = userId;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.email = email;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public String getFirstName() {
+            return firstName;
+        }
+
+        public String getLastName() {
+            return lastName;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+    }
+
+    public Long getTicketId() {
+        return ticketId;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public SupportTicket.TicketStatus getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public TicketUser getUser() {
+        return user;
+    }
+
+    public long getUnreadCount() {
+        return unreadCount;
+    }
+
+    public String getLastMessagePreview() {
+        return lastMessagePreview;
+    }
+
+    public LocalDateTime getLastMessageAt() {
+        return lastMessageAt;
+    }
+}
@@ -0,0 +1,40 @@
+package com.shopfy.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// One row per user per day of login activity, kept current by LoginRollupService as sessions are written.
+// Outlives the raw login_sessions rows, which are aged out after login-sessions.retention-days.
+@Entity
+@Table(name = "login_daily_rollups", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_login_rollup_user_date", columnNames = { "user_id", "activity_date" })
+})
+@Data
+public class LoginDailyRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "activity_date", nullable = false)
+    private LocalDate activityDate;
+
+    private long sessionCount;
+
+    // Sessions with a logout; only these contribute to totalDurationSeconds
+    private long completedSessions;
+
+    private long totalDurationSeconds;
+
+    private int distinctIps;
+
+    private int distinctUserAgents;
+
+    private LocalDateTime firstLoginAt;
+
+    private LocalDateTime lastLoginAt;
+}
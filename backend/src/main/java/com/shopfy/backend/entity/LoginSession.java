@@ -6,7 +6,11 @@ import java.time.LocalDateTime;
 import java.time.Duration;
 
 @Entity
-@Table(name = "login_sessions")
+@Table(name = "login_sessions", indexes = {
+        @Index(name = "idx_login_sessions_user_open", columnList = "user_id, logout_time"),
+        @Index(name = "idx_login_sessions_user_login", columnList = "user_id, login_time"),
+        @Index(name = "idx_login_sessions_login_time", columnList = "login_time")
+})
 @Data
 public class LoginSession {
 
@@ -1,5 +1,6 @@
 package com.shopfy.backend.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
 import java.time.LocalDateTime;
@@ -25,6 +26,10 @@ public class Notification {
 
     private Long relatedProfileRequestId;
 
+    // Set while the alert is waiting to go out in an owner's email digest
+    @JsonIgnore
+    private Boolean emailPending;
+
     @Column(updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 }
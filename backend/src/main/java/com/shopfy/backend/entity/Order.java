@@ -1,5 +1,7 @@
 package com.shopfy.backend.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.shopfy.backend.service.DashboardStatsListener;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -7,7 +9,11 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_created", columnList = "created_at"),
+        @Index(name = "idx_orders_updated", columnList = "updated_at")
+})
+@EntityListeners(DashboardStatsListener.class)
 public class Order {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -35,6 +41,11 @@ public class Order {
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL)
     private List<OrderItem> items = new ArrayList<>();
 
+    // Status as last loaded or written, so DashboardStatsListener can see status transitions
+    @Transient
+    @JsonIgnore
+    private OrderStatus persistedStatus;
+
     public enum OrderStatus {
         PENDING, ACCEPTED, PACKED, SHIPPED, DELIVERED, CANCELLED
     }
@@ -82,6 +93,14 @@ public class Order {
         this.status = status;
     }
 
+    public OrderStatus getPersistedStatus() {
+        return persistedStatus;
+    }
+
+    public void setPersistedStatus(OrderStatus persistedStatus) {
+        this.persistedStatus = persistedStatus;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
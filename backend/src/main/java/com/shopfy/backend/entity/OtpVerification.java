@@ -5,7 +5,9 @@ import lombok.Data;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "otp_verifications")
+@Table(name = "otp_verifications", indexes = {
+        @Index(name = "idx_otp_contact", columnList = "contact_info, otp_id")
+})
 @Data
 public class OtpVerification {
     @Id
@@ -15,6 +17,7 @@ public class OtpVerification {
     @Column(nullable = false)
     private String contactInfo;
 
+    // Hex HMAC of the code (see OtpService), never the code itself
     @Column(nullable = false)
     private String otpCode;
 
@@ -23,6 +26,9 @@ public class OtpVerification {
 
     private boolean isUsed = false;
 
+    // Wrong guesses against this code; it stops verifying at otp.max-attempts
+    private Integer attempts = 0;
+
     private LocalDateTime createdAt = LocalDateTime.now();
 
     // Role is needed to verify if the otp was requested for a specific role login,
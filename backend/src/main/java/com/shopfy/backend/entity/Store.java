@@ -1,11 +1,16 @@
 package com.shopfy.backend.entity;
 
+import com.shopfy.backend.service.DashboardStatsListener;
 import jakarta.persistence.*;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.Data;
 import java.time.LocalDateTime;
 
 @Entity
+@Cacheable
+@org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "stores")
 @Table(name = "stores")
+@EntityListeners(DashboardStatsListener.class)
 @Data
 public class Store {
 
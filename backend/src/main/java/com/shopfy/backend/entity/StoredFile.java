@@ -0,0 +1,24 @@
+package com.shopfy.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+// One row per distinct uploaded file. Files are named by the SHA-256 of their bytes, so uploading the same
+// bytes again only bumps refCount; FileStorageService deletes the file once nothing references it.
+@Entity
+@Table(name = "stored_files")
+@Data
+public class StoredFile {
+    // <sha256 hex><extension>, the name under uploads.dir and the last segment of the public URL
+    @Id
+    @Column(name = "file_name", length = 80)
+    private String fileName;
+
+    private long sizeBytes;
+
+    // Products, store logos and dashboard content currently pointing at the file
+    private int refCount;
+
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
@@ -5,7 +5,8 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "support_messages")
+@Table(name = "support_messages", indexes = @Index(name = "idx_support_messages_ticket",
+        columnList = "ticket_id, message_id"))
 public class SupportMessage {
 
     @Id
@@ -26,6 +27,7 @@ public class SupportMessage {
 
     private LocalDateTime timestamp = LocalDateTime.now();
 
+    // Legacy per-message flag; read state now lives in the ticket's read watermarks
     private boolean isRead = false;
 
     // Getters and Setters
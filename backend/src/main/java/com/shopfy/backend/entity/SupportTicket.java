@@ -5,7 +5,8 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "support_tickets")
+@Table(name = "support_tickets", indexes = @Index(name = "idx_support_tickets_updated",
+        columnList = "updated_at, ticket_id"))
 public class SupportTicket {
 
     @Id
@@ -24,6 +25,10 @@ public class SupportTicket {
     private LocalDateTime createdAt = LocalDateTime.now();
     private LocalDateTime updatedAt = LocalDateTime.now();
 
+    // Read watermarks: highest message id each side has seen (messages above it from the other side are unread)
+    private Long ownerLastReadMessageId = 0L;
+    private Long supportLastReadMessageId = 0L;
+
     @OneToMany(mappedBy = "ticket", cascade = CascadeType.ALL)
     private List<SupportMessage> messages;
 
@@ -91,6 +96,22 @@ public class SupportTicket {
         this.updatedAt = updatedAt;
     }
 
+    public Long getOwnerLastReadMessageId() {
+        return ownerLastReadMessageId;
+    }
+
+    public void setOwnerLastReadMessageId(Long ownerLastReadMessageId) {
+        this.ownerLastReadMessageId = ownerLastReadMessageId;
+    }
+
+    public Long getSupportLastReadMessageId() {
+        return supportLastReadMessageId;
+    }
+
+    public void setSupportLastReadMessageId(Long supportLastReadMessageId) {
+        this.supportLastReadMessageId = supportLastReadMessageId;
+    }
+
     public List<SupportMessage> getMessages() {
         return messages;
     }
@@ -1,13 +1,20 @@
 package com.shopfy.backend.entity;
 
+import com.shopfy.backend.service.DashboardStatsListener;
+import com.shopfy.backend.service.LoginLookupListener;
+import com.shopfy.backend.service.UserSearchListener;
 import jakarta.persistence.*;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "users")
+@Cacheable
+@org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@Table(name = "users", indexes = @Index(name = "idx_users_role", columnList = "role, user_id"))
+@EntityListeners({ DashboardStatsListener.class, UserSearchListener.class, LoginLookupListener.class })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -39,6 +46,9 @@ public class User {
     @Column(nullable = false)
     private Boolean emailNotificationsEnabled = true; // Default to enabled
 
+    @Column
+    private Boolean emailDigestEnabled = false; // Store owners: batch new order alerts into one email per window
+
     @Column(updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 }
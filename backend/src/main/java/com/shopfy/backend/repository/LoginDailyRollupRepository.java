@@ -0,0 +1,15 @@
+package com.shopfy.backend.repository;
+
+import com.shopfy.backend.entity.LoginDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface LoginDailyRollupRepository extends JpaRepository<LoginDailyRollup, Long> {
+    List<LoginDailyRollup> findByUserIdInAndActivityDateGreaterThanEqual(Collection<Long> userIds, LocalDate from);
+
+    List<LoginDailyRollup> findByUserIdAndActivityDateGreaterThanEqualOrderByActivityDateDesc(Long userId,
+            LocalDate from);
+}
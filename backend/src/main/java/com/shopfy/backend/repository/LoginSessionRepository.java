@@ -2,9 +2,14 @@ package com.shopfy.backend.repository;
 
 import com.shopfy.backend.entity.LoginSession;
 import com.shopfy.backend.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,5 +20,29 @@ public interface LoginSessionRepository extends JpaRepository<LoginSession, Long
 
     Optional<LoginSession> findByUserAndLogoutTimeIsNull(User user);
 
-    List<LoginSession> findByUser_UserId(Long userId);
+    List<LoginSession> findByUser_UserIdOrderByLoginTimeDesc(Long userId, Pageable pageable);
+
+    long countByUser_UserIdAndLogoutTimeIsNull(Long userId);
+
+    // [userId, loginTime] of sessions still open, i.e. the ones the next login or logout will close
+    @Query("SELECT s.user.userId, s.loginTime FROM LoginSession s "
+            + "WHERE s.user.userId IN :userIds AND s.logoutTime IS NULL")
+    List<Object[]> findOpenSessionStarts(@Param("userIds") Collection<Long> userIds);
+
+    // [userId, loginTime, logoutTime, ipAddress, userAgent] for rebuilding daily rollups
+    @Query("SELECT s.user.userId, s.loginTime, s.logoutTime, s.ipAddress, s.userAgent FROM LoginSession s "
+            + "WHERE s.user.userId IN :userIds AND s.loginTime >= :from")
+    List<Object[]> findRollupInputs(@Param("userIds") Collection<Long> userIds, @Param("from") LocalDateTime from);
+
+    // [sessionId, userId, loginTime, logoutTime, ipAddress, userAgent] in (user, login time, id) order, for
+    // the one-off backfill; pages continue after the last row of the previous one
+    @Query("SELECT s.sessionId, s.user.userId, s.loginTime, s.logoutTime, s.ipAddress, s.userAgent "
+            + "FROM LoginSession s WHERE s.user.userId > :afterUserId OR (s.user.userId = :afterUserId "
+            + "AND (s.loginTime > :afterLogin OR (s.loginTime = :afterLogin AND s.sessionId > :afterId))) "
+            + "ORDER BY s.user.userId, s.loginTime, s.sessionId")
+    List<Object[]> findRollupInputsAfter(@Param("afterUserId") Long afterUserId,
+            @Param("afterLogin") LocalDateTime afterLogin, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT s.sessionId FROM LoginSession s WHERE s.loginTime < :cutoff AND s.logoutTime IS NOT NULL")
+    List<Long> findExpiredSessionIds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
 }
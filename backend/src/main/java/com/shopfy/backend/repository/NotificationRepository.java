@@ -3,10 +3,30 @@ package com.shopfy.backend.repository;
 import com.shopfy.backend.entity.Notification;
 import com.shopfy.backend.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
 import java.util.List;
 
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
     List<Notification> findByRecipientOrderByCreatedAtDesc(User recipient);
 
     List<Notification> findByRecipientAndIsReadFalseOrderByCreatedAtDesc(User recipient);
+
+    List<Notification> findByRecipientUserIdAndIsReadFalseOrderByCreatedAtDesc(Long recipientId);
+
+    // Owner alerts still waiting for their digest email (used to rebuild the queue after a restart)
+    @Query("SELECT n FROM Notification n JOIN FETCH n.recipient WHERE n.emailPending = true ORDER BY n.id")
+    List<Notification> findPendingDigestAlerts();
+
+    @Query("SELECT n.id FROM Notification n WHERE n.id IN :ids AND n.emailPending = true")
+    List<Long> findEmailPendingIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.emailPending = false WHERE n.id IN :ids AND n.emailPending = true")
+    int clearEmailPending(@Param("ids") Collection<Long> ids);
 }
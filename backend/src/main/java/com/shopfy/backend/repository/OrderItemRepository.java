@@ -2,6 +2,23 @@ package com.shopfy.backend.repository;
 
 import com.shopfy.backend.entity.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+
+    // Item lines for a page of AdminOrderSummary rows
+    @Query("SELECT i.order.orderId, p.productName, i.quantity FROM OrderItem i JOIN i.product p "
+            + "WHERE i.order.orderId IN :orderIds ORDER BY i.orderItemId")
+    List<Object[]> findLinesForOrders(@Param("orderIds") Collection<Long> orderIds);
+
+    // Analytics fact loading: lines of the given orders, grouped by order
+    @Query("SELECT i.order.orderId, c.categoryId, c.categoryName, c.section, i.quantity, i.priceAtOrder "
+            + "FROM OrderItem i JOIN i.product p LEFT JOIN p.category c "
+            + "WHERE i.order.orderId IN :orderIds "
+            + "ORDER BY i.order.orderId, i.orderItemId")
+    List<Object[]> findAnalyticsFacts(@Param("orderIds") Collection<Long> orderIds);
 }
@@ -1,11 +1,14 @@
 package com.shopfy.backend.repository;
 
+import com.shopfy.backend.dto.AdminOrderSummary;
 import com.shopfy.backend.entity.Order;
 import com.shopfy.backend.entity.User;
 import com.shopfy.backend.entity.Store;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
@@ -20,4 +23,44 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     // Find all orders for stores owned by a specific user
     @Query("SELECT o FROM Order o WHERE o.store.owner.userId = :ownerId")
     List<Order> findByStoreOwnerUserId(@Param("ownerId") Long ownerId);
+
+    // Admin user pages: per-status totals and keyset pages (newest first) of projected order rows.
+    // A null beforeId starts from the most recent order.
+    String ADMIN_ORDER_SELECT = "SELECT new com.shopfy.backend.dto.AdminOrderSummary(o.orderId, o.createdAt, "
+            + "o.updatedAt, o.status, o.totalAmount, o.paymentMethod, s.storeId, s.storeName, c.userId, "
+            + "c.firstName, c.lastName) FROM Order o JOIN o.store s JOIN o.customer c ";
+
+    String ORDER_TOTALS_SELECT = "SELECT o.status, COUNT(o), COALESCE(SUM(o.totalAmount), 0), MIN(o.createdAt), "
+            + "MAX(o.createdAt) FROM Order o ";
+
+    @Query(ORDER_TOTALS_SELECT + "WHERE o.customer.userId = :userId GROUP BY o.status")
+    List<Object[]> summarizeByCustomer(@Param("userId") Long userId);
+
+    @Query(ORDER_TOTALS_SELECT + "WHERE o.store.owner.userId = :userId GROUP BY o.status")
+    List<Object[]> summarizeByStoreOwner(@Param("userId") Long userId);
+
+    @Query(ADMIN_ORDER_SELECT + "WHERE c.userId = :userId AND (:beforeId IS NULL OR o.orderId < :beforeId) "
+            + "ORDER BY o.orderId DESC")
+    List<AdminOrderSummary> findCustomerOrderSummaries(@Param("userId") Long userId,
+            @Param("beforeId") Long beforeId, Pageable page);
+
+    @Query(ADMIN_ORDER_SELECT + "WHERE s.owner.userId = :userId AND (:beforeId IS NULL OR o.orderId < :beforeId) "
+            + "ORDER BY o.orderId DESC")
+    List<AdminOrderSummary> findStoreOwnerOrderSummaries(@Param("userId") Long userId,
+            @Param("beforeId") Long beforeId, Pageable page);
+
+    // Dashboard stats reconciliation and trend rebuild
+    @Query("SELECT o.status, COUNT(o), COALESCE(SUM(o.totalAmount), 0) FROM Order o GROUP BY o.status")
+    List<Object[]> countAndSumByStatus();
+
+    @Query("SELECT o.createdAt, o.totalAmount FROM Order o WHERE o.createdAt >= :since")
+    List<Object[]> findPlacedSince(@Param("since") LocalDateTime since);
+
+    // Analytics fact loading: orders past the watermark, and status changes of already loaded orders
+    @Query("SELECT o.orderId, o.store.storeId, o.store.storeName, o.status, o.paymentMethod, o.createdAt, o.totalAmount "
+            + "FROM Order o WHERE o.orderId > :afterId ORDER BY o.orderId")
+    List<Object[]> findAnalyticsFacts(@Param("afterId") Long afterId, Pageable page);
+
+    @Query("SELECT o.orderId, o.status FROM Order o WHERE o.updatedAt >= :since AND o.orderId <= :throughId")
+    List<Object[]> findStatusChangesSince(@Param("since") LocalDateTime since, @Param("throughId") Long throughId);
 }
@@ -2,8 +2,36 @@ package com.shopfy.backend.repository;
 
 import com.shopfy.backend.entity.OtpVerification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 public interface OtpVerificationRepository extends JpaRepository<OtpVerification, Long> {
-    Optional<OtpVerification> findByContactInfoAndOtpCode(String contactInfo, String otpCode);
+    Optional<OtpVerification> findFirstByContactInfoOrderByOtpIdDesc(String contactInfo);
+
+    // A new code supersedes any earlier one for the same contact
+    @Modifying
+    @Transactional
+    @Query("UPDATE OtpVerification o SET o.isUsed = true WHERE o.contactInfo = :contactInfo AND o.isUsed = false")
+    int retirePending(@Param("contactInfo") String contactInfo);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OtpVerification o SET o.attempts = o.attempts + 1 "
+            + "WHERE o.otpId = :otpId AND o.isUsed = false AND o.attempts < :maxAttempts")
+    int recordAttempt(@Param("otpId") Long otpId, @Param("maxAttempts") int maxAttempts);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OtpVerification o SET o.isUsed = true WHERE o.otpId = :otpId AND o.isUsed = false")
+    int markUsed(@Param("otpId") Long otpId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OtpVerification o WHERE o.isUsed = true OR o.expiryTime < :now")
+    int deleteFinished(@Param("now") LocalDateTime now);
 }
@@ -3,8 +3,15 @@ package com.shopfy.backend.repository;
 import com.shopfy.backend.entity.Store;
 import com.shopfy.backend.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import java.util.Optional;
 
 public interface StoreRepository extends JpaRepository<Store, Long> {
     Optional<Store> findByOwner(User owner);
+
+    // Store of an owner whose token predates the store (no storeId claim yet)
+    @Query("SELECT s.storeId FROM Store s WHERE s.owner.userId = :ownerId")
+    Optional<Long> findStoreIdByOwnerId(@Param("ownerId") Long ownerId);
 }
@@ -0,0 +1,32 @@
+package com.shopfy.backend.repository;
+
+import com.shopfy.backend.entity.StoredFile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface StoredFileRepository extends JpaRepository<StoredFile, String> {
+    // Returns 0 when the file has no row yet (first upload of these bytes, or a file from before dedup)
+    @Modifying
+    @Transactional
+    @Query("UPDATE StoredFile f SET f.refCount = f.refCount + 1 WHERE f.fileName = :fileName")
+    int addReference(@Param("fileName") String fileName);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE StoredFile f SET f.refCount = f.refCount - 1 WHERE f.fileName = :fileName AND f.refCount > 0")
+    int removeReference(@Param("fileName") String fileName);
+
+    // Deletes the row only if nothing took a new reference in the meantime
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM StoredFile f WHERE f.fileName = :fileName AND f.refCount = 0")
+    int deleteUnreferenced(@Param("fileName") String fileName);
+
+    @Query("SELECT COUNT(f), COALESCE(SUM(f.sizeBytes), 0), COALESCE(SUM(f.refCount), 0) FROM StoredFile f")
+    List<Object[]> summarize();
+}
@@ -2,14 +2,25 @@ package com.shopfy.backend.repository;
 
 import com.shopfy.backend.entity.SupportMessage;
 import com.shopfy.backend.entity.SupportTicket;
-import com.shopfy.backend.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import java.util.List;
 
 public interface SupportMessageRepository extends JpaRepository<SupportMessage, Long> {
     List<SupportMessage> findByTicketOrderByTimestampAsc(SupportTicket ticket);
 
-    long countByTicketAndSenderNotAndIsReadFalse(SupportTicket ticket, User sender);
+    // History pages keyed by message id (newest first, reversed by the service)
+    List<SupportMessage> findByTicketTicketIdOrderByMessageIdDesc(Long ticketId, Pageable page);
 
-    List<SupportMessage> findByTicketAndSenderNotAndIsReadFalse(SupportTicket ticket, User sender);
+    List<SupportMessage> findByTicketTicketIdAndMessageIdLessThanOrderByMessageIdDesc(Long ticketId, Long beforeId,
+            Pageable page);
+
+    // Catch-up after a reconnect
+    List<SupportMessage> findByTicketTicketIdAndMessageIdGreaterThanOrderByMessageIdAsc(Long ticketId, Long afterId,
+            Pageable page);
+
+    // (messageId, ticketId, content) for building the search index
+    @Query("SELECT m.messageId, m.ticket.ticketId, m.content FROM SupportMessage m")
+    List<Object[]> findAllContentForIndex();
 }
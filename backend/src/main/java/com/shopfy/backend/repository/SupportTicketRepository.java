@@ -1,12 +1,85 @@
 package com.shopfy.backend.repository;
 
+import com.shopfy.backend.dto.SupportTicketSummary;
 import com.shopfy.backend.entity.SupportTicket;
 import com.shopfy.backend.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface SupportTicketRepository extends JpaRepository<SupportTicket, Long> {
     List<SupportTicket> findByUserOrderByUpdatedAtDesc(User user);
 
     List<SupportTicket> findAllByOrderByUpdatedAtDesc(); // For Admin
+
+    // Ticket rows with unread count and last message preview, computed in the same statement
+    String SUMMARY_SELECT = "SELECT new com.shopfy.backend.dto.SupportTicketSummary("
+            + "t.ticketId, t.subject, t.status, t.createdAt, t.updatedAt, "
+            + "u.userId, u.firstName, u.lastName, u.email, ";
+
+    // Unread = messages from the other side above the viewer's read watermark (index range count)
+    String OWNER_UNREAD = "(SELECT COUNT(m) FROM SupportMessage m WHERE m.ticket = t "
+            + "AND m.messageId > COALESCE(t.ownerLastReadMessageId, 0) AND m.sender.userId <> u.userId), ";
+
+    String ADMIN_UNREAD = "(SELECT COUNT(m) FROM SupportMessage m WHERE m.ticket = t "
+            + "AND m.messageId > COALESCE(t.supportLastReadMessageId, 0) AND m.sender.userId = u.userId), ";
+
+    String SUMMARY_FROM = "SUBSTRING(lm.content, 1, 100), lm.timestamp) "
+            + "FROM SupportTicket t JOIN t.user u "
+            + "LEFT JOIN SupportMessage lm ON lm.ticket = t "
+            + "AND lm.messageId = (SELECT MAX(x.messageId) FROM SupportMessage x WHERE x.ticket = t) ";
+
+    @Query(SUMMARY_SELECT + OWNER_UNREAD + SUMMARY_FROM
+            + "WHERE u.userId = :userId ORDER BY t.updatedAt DESC, t.ticketId DESC")
+    List<SupportTicketSummary> findSummariesByUser(@Param("userId") Long userId);
+
+    // Admin queue, keyset paginated on (updatedAt, ticketId)
+    @Query(SUMMARY_SELECT + ADMIN_UNREAD + SUMMARY_FROM + "ORDER BY t.updatedAt DESC, t.ticketId DESC")
+    List<SupportTicketSummary> findAdminSummaries(Pageable page);
+
+    @Query(SUMMARY_SELECT + ADMIN_UNREAD + SUMMARY_FROM
+            + "WHERE t.updatedAt < :updatedAt OR (t.updatedAt = :updatedAt AND t.ticketId < :ticketId) "
+            + "ORDER BY t.updatedAt DESC, t.ticketId DESC")
+    List<SupportTicketSummary> findAdminSummariesBefore(@Param("updatedAt") LocalDateTime updatedAt,
+            @Param("ticketId") Long ticketId, Pageable page);
+
+    // Per open ticket: createdAt, last support reply id, and first customer message after that reply
+    @Query("SELECT t.ticketId, t.createdAt, "
+            + "(SELECT MAX(s.messageId) FROM SupportMessage s "
+            + "WHERE s.ticket = t AND s.sender.userId <> t.user.userId), "
+            + "(SELECT MIN(c.timestamp) FROM SupportMessage c WHERE c.ticket = t AND c.sender.userId = t.user.userId "
+            + "AND c.messageId > COALESCE((SELECT MAX(r.messageId) FROM SupportMessage r "
+            + "WHERE r.ticket = t AND r.sender.userId <> t.user.userId), 0)) "
+            + "FROM SupportTicket t WHERE t.status = :status")
+    List<Object[]> findOpenTicketWaitStates(@Param("status") SupportTicket.TicketStatus status);
+
+    @Query("SELECT t.ticketId, t.subject FROM SupportTicket t")
+    List<Object[]> findAllSubjectsForIndex();
+
+    // Bumps updatedAt only, without loading and re-saving the ticket
+    @Modifying
+    @Transactional
+    @Query("UPDATE SupportTicket t SET t.updatedAt = :updatedAt WHERE t.ticketId = :ticketId")
+    int touch(@Param("ticketId") Long ticketId, @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Mark read: move the reader's watermark to the latest message in one UPDATE
+    @Modifying
+    @Transactional
+    @Query("UPDATE SupportTicket t SET t.ownerLastReadMessageId = "
+            + "(SELECT COALESCE(MAX(m.messageId), 0) FROM SupportMessage m WHERE m.ticket = t) "
+            + "WHERE t.ticketId = :ticketId AND t.user.userId = :userId")
+    int markReadByOwner(@Param("ticketId") Long ticketId, @Param("userId") Long userId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE SupportTicket t SET t.supportLastReadMessageId = "
+            + "(SELECT COALESCE(MAX(m.messageId), 0) FROM SupportMessage m WHERE m.ticket = t) "
+            + "WHERE t.ticketId = :ticketId AND t.user.userId <> :userId")
+    int markReadBySupport(@Param("ticketId") Long ticketId, @Param("userId") Long userId);
 }
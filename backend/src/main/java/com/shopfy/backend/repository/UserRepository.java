@@ -1,8 +1,15 @@
 package com.shopfy.backend.repository;
 
+import com.shopfy.backend.dto.AdminUserSummary;
 import com.shopfy.backend.entity.Role;
 import com.shopfy.backend.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,9 +18,53 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByMobileNumber(String mobileNumber);
 
-    // For login checks
-    @org.springframework.data.jpa.repository.Query("SELECT u FROM User u WHERE u.email = :identifier OR u.mobileNumber = :identifier")
-    Optional<User> findByEmailOrMobileNumber(String identifier);
-
     List<User> findByRole(Role role);
+
+    // Dashboard stats reconciliation and trend rebuild
+    @Query("SELECT u.role, COUNT(u) FROM User u GROUP BY u.role")
+    List<Object[]> countUsersByRole();
+
+    @Query("SELECT u.createdAt FROM User u WHERE u.createdAt >= :since AND u.role <> com.shopfy.backend.entity.Role.ADMIN")
+    List<LocalDateTime> findSignupTimesSince(@Param("since") LocalDateTime since);
+
+    // Admin user listings: users of one role with their order counts, keyset paginated on userId.
+    // A null cursor starts from the first page.
+    String SUMMARY_SELECT = "SELECT new com.shopfy.backend.dto.AdminUserSummary(u.userId, u.firstName, u.lastName, "
+            + "u.email, u.mobileNumber, u.role, u.createdAt, COUNT(o.orderId)) ";
+
+    String CUSTOMER_FROM = "FROM User u LEFT JOIN Order o ON o.customer = u "
+            + "WHERE u.role = com.shopfy.backend.entity.Role.CUSTOMER ";
+
+    String STORE_OWNER_FROM = "FROM User u LEFT JOIN Store s ON s.owner = u LEFT JOIN Order o ON o.store = s "
+            + "WHERE u.role = com.shopfy.backend.entity.Role.STORE_OWNER ";
+
+    String SUMMARY_GROUP = "GROUP BY u.userId, u.firstName, u.lastName, u.email, u.mobileNumber, u.role, u.createdAt ";
+
+    @Query(SUMMARY_SELECT + CUSTOMER_FROM + "AND (:afterId IS NULL OR u.userId > :afterId) "
+            + SUMMARY_GROUP + "ORDER BY u.userId ASC")
+    List<AdminUserSummary> findCustomerSummariesAfter(@Param("afterId") Long afterId, Pageable page);
+
+    @Query(SUMMARY_SELECT + CUSTOMER_FROM + "AND (:beforeId IS NULL OR u.userId < :beforeId) "
+            + SUMMARY_GROUP + "ORDER BY u.userId DESC")
+    List<AdminUserSummary> findCustomerSummariesBefore(@Param("beforeId") Long beforeId, Pageable page);
+
+    @Query(SUMMARY_SELECT + STORE_OWNER_FROM + "AND (:afterId IS NULL OR u.userId > :afterId) "
+            + SUMMARY_GROUP + "ORDER BY u.userId ASC")
+    List<AdminUserSummary> findStoreOwnerSummariesAfter(@Param("afterId") Long afterId, Pageable page);
+
+    @Query(SUMMARY_SELECT + STORE_OWNER_FROM + "AND (:beforeId IS NULL OR u.userId < :beforeId) "
+            + SUMMARY_GROUP + "ORDER BY u.userId DESC")
+    List<AdminUserSummary> findStoreOwnerSummariesBefore(@Param("beforeId") Long beforeId, Pageable page);
+
+    // Rows for admin user search hits
+    @Query(SUMMARY_SELECT + CUSTOMER_FROM + "AND u.userId IN :ids " + SUMMARY_GROUP)
+    List<AdminUserSummary> findCustomerSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    @Query(SUMMARY_SELECT + STORE_OWNER_FROM + "AND u.userId IN :ids " + SUMMARY_GROUP)
+    List<AdminUserSummary> findStoreOwnerSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    // Admin user search index build, in userId batches
+    @Query("SELECT u.userId, u.firstName, u.lastName, u.email, u.mobileNumber, u.role FROM User u "
+            + "WHERE u.userId > :afterId ORDER BY u.userId")
+    List<Object[]> findSearchFieldsAfter(@Param("afterId") Long afterId, Pageable page);
 }
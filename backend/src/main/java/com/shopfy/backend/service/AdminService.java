@@ -1,14 +1,25 @@
 package com.shopfy.backend.service;
 
+import com.shopfy.backend.dto.AdminOrderSummary;
+import com.shopfy.backend.dto.AdminUserSummary;
+import com.shopfy.backend.entity.Order;
 import com.shopfy.backend.entity.User;
 import com.shopfy.backend.entity.Role;
+import com.shopfy.backend.repository.OrderItemRepository;
 import com.shopfy.backend.repository.UserRepository;
 import com.shopfy.backend.repository.OrderRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 public class AdminService {
@@ -19,68 +30,208 @@ public class AdminService {
     @Autowired
     private OrderRepository orderRepository;
 
-    public Map<String, List<Map<String, Object>>> getUsersByRole() {
-        List<User> allUsers = userRepository.findAll();
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private NotificationService notificationService;
 
-        Map<String, List<Map<String, Object>>> usersByRole = new HashMap<>();
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
 
-        // Group users by role, excluding ADMIN users
-        List<Map<String, Object>> customers = allUsers.stream()
-                .filter(user -> user.getRole() == Role.CUSTOMER)
-                .map(this::mapUserToDto)
-                .collect(Collectors.toList());
+    @Autowired
+    private UserSearchService userSearchService;
 
-        List<Map<String, Object>> storeOwners = allUsers.stream()
-                .filter(user -> user.getRole() == Role.STORE_OWNER)
-                .map(this::mapUserToDto)
-                .collect(Collectors.toList());
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
 
-        usersByRole.put("CUSTOMER", customers);
-        usersByRole.put("STORE_OWNER", storeOwners);
+    private static final int MAX_USER_PAGE_SIZE = 200;
+    private static final int MAX_ORDER_PAGE_SIZE = 200;
 
+    // Full listing for both roles; each role is one grouped query, ADMIN users are excluded
+    public Map<String, List<AdminUserSummary>> getUsersByRole() {
+        Map<String, List<AdminUserSummary>> usersByRole = new HashMap<>();
+        usersByRole.put("CUSTOMER", userRepository.findCustomerSummariesAfter(null, Pageable.unpaged()));
+        usersByRole.put("STORE_OWNER", userRepository.findStoreOwnerSummariesAfter(null, Pageable.unpaged()));
         return usersByRole;
     }
 
-    public Map<String, Object> getUserDetails(Long userId) {
+    // One page of users for a role, keyset paginated on userId. Pass the returned nextCursor to get
+    // the following page; newestFirst walks from the most recently registered user backwards.
+    public Map<String, Object> getUsersPage(Role role, Long cursor, int limit, boolean newestFirst) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_USER_PAGE_SIZE));
+        Pageable page = PageRequest.of(0, pageSize);
+
+        List<AdminUserSummary> users;
+        if (role == Role.CUSTOMER) {
+            users = newestFirst
+                    ? userRepository.findCustomerSummariesBefore(cursor, page)
+                    : userRepository.findCustomerSummariesAfter(cursor, page);
+        } else if (role == Role.STORE_OWNER) {
+            users = newestFirst
+                    ? userRepository.findStoreOwnerSummariesBefore(cursor, page)
+                    : userRepository.findStoreOwnerSummariesAfter(cursor, page);
+        } else {
+            throw new RuntimeException("User listing is only available for CUSTOMER and STORE_OWNER");
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("users", users);
+        result.put("nextCursor", users.size() == pageSize ? users.get(users.size() - 1).getUserId() : null);
+        return result;
+    }
+
+    // Prefix search over name, email and mobile number, best index matches first
+    public List<AdminUserSummary> searchUsers(String query, Role role, int limit) {
+        List<Long> ids = userSearchService.search(query, role, limit);
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, AdminUserSummary> byId = new HashMap<>();
+        if (role != Role.STORE_OWNER) {
+            userRepository.findCustomerSummariesByIds(ids).forEach(u -> byId.put(u.getUserId(), u));
+        }
+        if (role != Role.CUSTOMER) {
+            userRepository.findStoreOwnerSummariesByIds(ids).forEach(u -> byId.put(u.getUserId(), u));
+        }
+        List<AdminUserSummary> results = new ArrayList<>();
+        for (Long id : ids) {
+            if (byId.containsKey(id)) {
+                results.add(byId.get(id));
+            }
+        }
+        return results;
+    }
+
+    // Profile plus an order summary (counts, lifetime value, most recent orders); the full history
+    // is paged through getUserOrders
+    public Map<String, Object> getUserDetails(Long userId, int recentOrders) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         Map<String, Object> details = mapUserToDto(user);
 
-        // Fetch full orders
-        List<?> orders = new ArrayList<>();
+        List<Object[]> totals = List.of();
         if (user.getRole() == Role.CUSTOMER) {
-            orders = orderRepository.findByCustomerUserId(userId);
+            totals = orderRepository.summarizeByCustomer(userId);
         } else if (user.getRole() == Role.STORE_OWNER) {
-            orders = orderRepository.findByStoreOwnerUserId(userId);
+            totals = orderRepository.summarizeByStoreOwner(userId);
+        }
+
+        long orderCount = 0;
+        BigDecimal lifetimeValue = BigDecimal.ZERO;
+        LocalDateTime firstOrderAt = null;
+        LocalDateTime lastOrderAt = null;
+        Map<String, Long> ordersByStatus = new LinkedHashMap<>();
+        for (Object[] row : totals) {
+            Order.OrderStatus status = (Order.OrderStatus) row[0];
+            long count = (Long) row[1];
+            ordersByStatus.put(status.name(), count);
+            orderCount += count;
+            // Cancelled orders never turned into revenue
+            if (status != Order.OrderStatus.CANCELLED) {
+                lifetimeValue = lifetimeValue.add((BigDecimal) row[2]);
+            }
+            LocalDateTime first = (LocalDateTime) row[3];
+            LocalDateTime last = (LocalDateTime) row[4];
+            if (first != null && (firstOrderAt == null || first.isBefore(firstOrderAt))) {
+                firstOrderAt = first;
+            }
+            if (last != null && (lastOrderAt == null || last.isAfter(lastOrderAt))) {
+                lastOrderAt = last;
+            }
         }
-        details.put("orders", orders);
+
+        details.put("orderCount", orderCount);
+        details.put("ordersByStatus", ordersByStatus);
+        details.put("lifetimeValue", lifetimeValue);
+        details.put("firstOrderAt", firstOrderAt);
+        details.put("lastOrderAt", lastOrderAt);
+        details.put("recentOrders", recentOrders > 0 && orderCount > 0
+                ? findOrderPage(user, null, Math.min(recentOrders, MAX_ORDER_PAGE_SIZE))
+                : List.of());
 
         return details;
     }
 
-    public Map<String, Object> getOverallStats() {
-        List<User> allUsers = userRepository.findAll();
+    // Order history for a user, newest first, keyset paginated on orderId
+    public Map<String, Object> getUserOrders(Long userId, Long cursor, int limit) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        int pageSize = Math.max(1, Math.min(limit, MAX_ORDER_PAGE_SIZE));
+
+        List<AdminOrderSummary> orders = findOrderPage(user, cursor, pageSize);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("orders", orders);
+        result.put("nextCursor", orders.size() == pageSize ? orders.get(orders.size() - 1).getOrderId() : null);
+        return result;
+    }
 
-        long totalCustomers = allUsers.stream()
-                .filter(user -> user.getRole() == Role.CUSTOMER)
-                .count();
+    private List<AdminOrderSummary> findOrderPage(User user, Long beforeId, int pageSize) {
+        Pageable page = PageRequest.of(0, pageSize);
+        List<AdminOrderSummary> orders;
+        if (user.getRole() == Role.CUSTOMER) {
+            orders = orderRepository.findCustomerOrderSummaries(user.getUserId(), beforeId, page);
+        } else if (user.getRole() == Role.STORE_OWNER) {
+            orders = orderRepository.findStoreOwnerOrderSummaries(user.getUserId(), beforeId, page);
+        } else {
+            return new ArrayList<>();
+        }
+        if (orders.isEmpty()) {
+            return orders;
+        }
 
-        long totalStoreOwners = allUsers.stream()
-                .filter(user -> user.getRole() == Role.STORE_OWNER)
-                .count();
+        Map<Long, AdminOrderSummary> byId = new HashMap<>();
+        for (AdminOrderSummary order : orders) {
+            byId.put(order.getOrderId(), order);
+        }
+        for (Object[] row : orderItemRepository.findLinesForOrders(byId.keySet())) {
+            byId.get((Long) row[0]).getItems().add(new AdminOrderSummary.Line((String) row[1], (Integer) row[2]));
+        }
+        return orders;
+    }
 
-        long totalOrders = orderRepository.count();
+    // Served from in-memory counters; see DashboardStatsService
+    public Map<String, Object> getOverallStats() {
+        return dashboardStatsService.snapshot();
+    }
 
-        Map<String, Object> stats = new HashMap<>();
-        stats.put("totalCustomers", totalCustomers);
-        stats.put("totalStoreOwners", totalStoreOwners);
-        stats.put("totalOrders", totalOrders);
-        stats.put("totalUsers", totalCustomers + totalStoreOwners);
+    // Second-level cache effectiveness per region since startup (regions are configured in ehcache.xml)
+    public Map<String, Object> getCacheStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStats = statistics.getDomainDataRegionStatistics(region);
+            long lookups = regionStats.getHitCount() + regionStats.getMissCount();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("hits", regionStats.getHitCount());
+            entry.put("misses", regionStats.getMissCount());
+            entry.put("puts", regionStats.getPutCount());
+            entry.put("hitRatio", lookups > 0 ? (double) regionStats.getHitCount() / lookups : null);
+            // JCache does not report sizes; Hibernate returns a negative sentinel then
+            long entries = regionStats.getElementCountInMemory();
+            entry.put("entriesInMemory", entries >= 0 ? entries : null);
+            regions.put(region, entry);
+        }
 
+        long lookups = statistics.getSecondLevelCacheHitCount() + statistics.getSecondLevelCacheMissCount();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", statistics.isStatisticsEnabled() && !regions.isEmpty());
+        stats.put("hitRatio", lookups > 0 ? (double) statistics.getSecondLevelCacheHitCount() / lookups : null);
+        stats.put("regions", regions);
         return stats;
     }
 
+    public int broadcast(Role role, String message) {
+        if (message == null || message.isBlank()) {
+            throw new RuntimeException("Message is required");
+        }
+        int count = notificationService.notifyRole(role, message, null, null);
+        System.out.println("Broadcast sent to " + count + " users with role " + role);
+        return count;
+    }
+
     private Map<String, Object> mapUserToDto(User user) {
         Map<String, Object> userDto = new HashMap<>();
         userDto.put("userId", user.getUserId());
@@ -89,23 +240,6 @@ public class AdminService {
         userDto.put("email", user.getEmail());
         userDto.put("mobileNumber", user.getMobileNumber());
         userDto.put("role", user.getRole().toString());
-
-        // Get order count based on role
-        long orderCount = 0;
-        try {
-            if (user.getRole() == Role.CUSTOMER) {
-                // Count orders placed by customer
-                orderCount = orderRepository.findByCustomerUserId(user.getUserId()).size();
-            } else if (user.getRole() == Role.STORE_OWNER) {
-                // Count orders received by store owner's stores
-                orderCount = orderRepository.findByStoreOwnerUserId(user.getUserId()).size();
-            }
-        } catch (Exception e) {
-            System.err.println("Error fetching order count for user " + user.getUserId() + ": " + e.getMessage());
-            orderCount = 0;
-        }
-
-        userDto.put("orderCount", orderCount);
         userDto.put("createdAt", user.getCreatedAt());
 
         return userDto;
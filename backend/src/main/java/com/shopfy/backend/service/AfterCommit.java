@@ -0,0 +1,34 @@
+package com.shopfy.backend.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Runs an in-memory counter or index update once the surrounding transaction commits (right away when
+// there is none), so rolled back writes never reach it. Updates are best effort: a failure is logged
+// instead of failing the write that triggered it.
+final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    static void run(String what, Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(what, update);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(what, update);
+            }
+        });
+    }
+
+    private static void apply(String what, Runnable update) {
+        try {
+            update.run();
+        } catch (Exception e) {
+            System.err.println("Failed to update " + what + ": " + e.getMessage());
+        }
+    }
+}
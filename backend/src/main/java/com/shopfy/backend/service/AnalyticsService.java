@@ -0,0 +1,551 @@
+package com.shopfy.backend.service;
+
+import com.shopfy.backend.entity.Order;
+import com.shopfy.backend.repository.OrderItemRepository;
+import com.shopfy.backend.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+// In-memory column store of order and order-item facts for ad-hoc admin reporting.
+// Dimensions are dictionary encoded into int columns and measures are long columns (money in paise).
+// Group-by queries scan row chunks in parallel. New orders and status changes are pulled in
+// incrementally every analytics.refresh-ms. Order ids and timestamps are assigned before commit, so a slow
+// transaction can land behind the watermark; the whole cube is rebuilt every analytics.reconcile-ms and
+// swapped in, which bounds how long such an order stays missing.
+@Service
+public class AnalyticsService {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    private static final int LOAD_BATCH_SIZE = 5000;
+    private static final int SCAN_CHUNK_ROWS = 65536;
+    // Orders younger than this are left for the next refresh, so a slower transaction holding a lower
+    // id has usually committed before we move the watermark past it
+    private static final long SETTLE_SECONDS = 5;
+    // Status changes are re-read over this trailing window on every refresh; applying one twice is harmless
+    private static final long STATUS_RESCAN_MINUTES = 10;
+    private static final int DEFAULT_LIMIT = 100;
+    private static final int MAX_LIMIT = 5000;
+
+    public enum Dimension {
+        STORE(0), CATEGORY(1), SECTION(2), STATUS(3), PAYMENT(4), DAY(5), WEEK(5), MONTH(6);
+
+        // Stored column; WEEK is derived from the DAY column at scan time
+        private final int column;
+
+        Dimension(int column) {
+            this.column = column;
+        }
+    }
+
+    private static final int COLUMN_COUNT = 7;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Replaced wholesale by reconcile(); guarded by lock
+    private Cube cube = new Cube();
+    private LocalDateTime lastRefreshAt;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        refresh();
+        System.out.println("Analytics loaded " + cube.orderFacts.size + " orders and " + cube.itemFacts.size + " order items");
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.refresh-ms:60000}", initialDelayString = "${analytics.refresh-ms:60000}")
+    public synchronized void refresh() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        if (lastRefreshAt != null) {
+            applyStatusChanges(lastRefreshAt.minusMinutes(STATUS_RESCAN_MINUTES));
+        }
+        loadNewOrders(cube, startedAt.minusSeconds(SETTLE_SECONDS));
+        lastRefreshAt = startedAt;
+    }
+
+    // Loads every order into a fresh cube while queries keep reading the current one, then swaps it in.
+    // Picks up orders and status changes that committed too late for the incremental refresh to see.
+    @Scheduled(fixedDelayString = "${analytics.reconcile-ms:3600000}", initialDelayString = "${analytics.reconcile-ms:3600000}")
+    public synchronized void reconcile() {
+        long started = System.currentTimeMillis();
+        LocalDateTime startedAt = LocalDateTime.now();
+        Cube rebuilt = new Cube();
+        loadNewOrders(rebuilt, startedAt.minusSeconds(SETTLE_SECONDS));
+
+        lock.writeLock().lock();
+        try {
+            cube = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        lastRefreshAt = startedAt;
+        System.out.println("Analytics reconciled " + rebuilt.orderFacts.size + " orders in "
+                + (System.currentTimeMillis() - started) + " ms");
+    }
+
+    // fact: "orders" (one row per order) or "items" (one row per order line).
+    // filters: "dimension:value|value", matched against ids or labels. from/to bound the order date, inclusive.
+    public Map<String, Object> query(String fact, List<String> groupBy, List<String> filters,
+            LocalDate from, LocalDate to, int limit) {
+        long started = System.nanoTime();
+        boolean items = "items".equalsIgnoreCase(fact);
+        if (!items && !"orders".equalsIgnoreCase(fact)) {
+            throw new RuntimeException("fact must be 'orders' or 'items'");
+        }
+        List<Dimension> dims = new ArrayList<>();
+        for (String name : groupBy) {
+            Dimension dim = dimension(name);
+            if (!dims.contains(dim)) {
+                dims.add(dim);
+            }
+        }
+
+        lock.readLock().lock();
+        try {
+            FactTable table = items ? cube.itemFacts : cube.orderFacts;
+            for (Dimension dim : dims) {
+                table.requireColumn(dim);
+            }
+            Scan scan = new Scan(cube, table, dims, from, to);
+            for (String filter : filters) {
+                addFilter(scan, filter);
+            }
+
+            int rows = table.size;
+            int chunks = (rows + SCAN_CHUNK_ROWS - 1) / SCAN_CHUNK_ROWS;
+            Map<Long, long[]> groups = IntStream.range(0, chunks).parallel()
+                    .mapToObj(chunk -> scan.run(chunk * SCAN_CHUNK_ROWS,
+                            Math.min(rows, (chunk + 1) * SCAN_CHUNK_ROWS)))
+                    .reduce(AnalyticsService::merge)
+                    .orElseGet(HashMap::new);
+
+            List<Map.Entry<Long, long[]>> ranked = new ArrayList<>(groups.entrySet());
+            ranked.sort((a, b) -> a.getValue()[2] != b.getValue()[2]
+                    ? Long.compare(b.getValue()[2], a.getValue()[2])
+                    : Long.compare(b.getValue()[0], a.getValue()[0]));
+
+            int max = Math.max(1, Math.min(limit > 0 ? limit : DEFAULT_LIMIT, MAX_LIMIT));
+            List<Map<String, Object>> resultRows = new ArrayList<>();
+            for (Map.Entry<Long, long[]> entry : ranked.subList(0, Math.min(max, ranked.size()))) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                for (int d = 0; d < dims.size(); d++) {
+                    row.put(dims.get(d).name().toLowerCase(Locale.ROOT), scan.label(d, entry.getKey()));
+                }
+                long[] measures = entry.getValue();
+                row.put("count", measures[0]);
+                if (items) {
+                    row.put("quantity", measures[1]);
+                }
+                row.put("value", BigDecimal.valueOf(measures[2], 2));
+                resultRows.add(row);
+            }
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("fact", items ? "items" : "orders");
+            result.put("groupBy", dims.stream().map(d -> d.name().toLowerCase(Locale.ROOT)).toList());
+            result.put("groups", groups.size());
+            result.put("rows", resultRows);
+            result.put("scannedRows", rows);
+            result.put("tookMicros", (System.nanoTime() - started) / 1000);
+            result.put("refreshedAt", lastRefreshAt);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Appends orders past the target's watermark; the target is either the live cube or one being rebuilt.
+    // Each batch stops at the first order that has not settled yet, so the watermark never passes an order
+    // that was left out, and a batch's rows become visible together with the watermark that covers them.
+    private void loadNewOrders(Cube target, LocalDateTime settledBefore) {
+        while (true) {
+            List<Object[]> fetched = orderRepository.findAnalyticsFacts(target.lastOrderId,
+                    PageRequest.of(0, LOAD_BATCH_SIZE));
+            List<Object[]> orders = new ArrayList<>(fetched.size());
+            for (Object[] row : fetched) {
+                if (!((LocalDateTime) row[5]).isBefore(settledBefore)) {
+                    break;
+                }
+                orders.add(row);
+            }
+            if (orders.isEmpty()) {
+                return;
+            }
+            List<Long> orderIds = orders.stream().map(row -> (Long) row[0]).toList();
+            long throughId = orderIds.get(orderIds.size() - 1);
+            List<Object[]> items = orderItemRepository.findAnalyticsFacts(orderIds);
+
+            lock.writeLock().lock();
+            try {
+                // Encode the batch first; the fact tables are only touched once every row is ready
+                Map<Long, int[]> orderDims = new HashMap<>();
+                long[] orderValues = new long[orders.size()];
+                for (int i = 0; i < orders.size(); i++) {
+                    Object[] row = orders.get(i);
+                    LocalDateTime createdAt = (LocalDateTime) row[5];
+                    int[] dims = new int[COLUMN_COUNT];
+                    dims[Dimension.STORE.column] = target.stores.code(row[1], (String) row[2]);
+                    dims[Dimension.STATUS.column] = target.statuses.code(((Order.OrderStatus) row[3]).name(), null);
+                    dims[Dimension.PAYMENT.column] = target.payments.code(row[4], null);
+                    dims[Dimension.DAY.column] = (int) createdAt.toLocalDate().toEpochDay();
+                    dims[Dimension.MONTH.column] = createdAt.getYear() * 12 + createdAt.getMonthValue() - 1;
+                    orderDims.put(orderIds.get(i), dims);
+                    orderValues[i] = toMinor((BigDecimal) row[6]);
+                }
+                List<int[]> itemDims = new ArrayList<>(items.size());
+                long[] itemQuantities = new long[items.size()];
+                long[] itemValues = new long[items.size()];
+                for (int i = 0; i < items.size(); i++) {
+                    Object[] row = items.get(i);
+                    int[] dims = orderDims.get((Long) row[0]).clone();
+                    dims[Dimension.CATEGORY.column] = target.categories.code(row[1], (String) row[2]);
+                    dims[Dimension.SECTION.column] = target.sections.code(row[3], null);
+                    int quantity = (Integer) row[4];
+                    itemDims.add(dims);
+                    itemQuantities[i] = quantity;
+                    itemValues[i] = toMinor((BigDecimal) row[5]) * quantity;
+                }
+
+                for (int i = 0; i < orders.size(); i++) {
+                    long orderId = orderIds.get(i);
+                    target.orderFacts.append(orderId, orderDims.get(orderId), 0, orderValues[i]);
+                }
+                for (int i = 0; i < items.size(); i++) {
+                    target.itemFacts.append((Long) items.get(i)[0], itemDims.get(i), itemQuantities[i], itemValues[i]);
+                }
+                target.lastOrderId = throughId;
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            if (orders.size() < fetched.size() || fetched.size() < LOAD_BATCH_SIZE) {
+                return;
+            }
+        }
+    }
+
+    private void applyStatusChanges(LocalDateTime since) {
+        List<Object[]> changes = orderRepository.findStatusChangesSince(since, cube.lastOrderId);
+        if (changes.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (Object[] row : changes) {
+                int status = cube.statuses.code(((Order.OrderStatus) row[1]).name(), null);
+                cube.orderFacts.setStatus((Long) row[0], status);
+                cube.itemFacts.setStatus((Long) row[0], status);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addFilter(Scan scan, String filter) {
+        int colon = filter.indexOf(':');
+        if (colon < 0) {
+            throw new RuntimeException("Filter must look like dimension:value|value, got " + filter);
+        }
+        Dimension dim = dimension(filter.substring(0, colon));
+        Dictionary dictionary = scan.cube.dictionary(dim);
+        if (dictionary == null) {
+            throw new RuntimeException("Use from/to to filter by date");
+        }
+        scan.table.requireColumn(dim);
+        boolean[] allowed = new boolean[dictionary.size()];
+        for (String value : filter.substring(colon + 1).split("\\|")) {
+            for (int code = 0; code < allowed.length; code++) {
+                if (dictionary.matches(code, value.trim())) {
+                    allowed[code] = true;
+                }
+            }
+        }
+        scan.filterColumns.add(scan.table.columns[dim.column]);
+        scan.filterAllowed.add(allowed);
+    }
+
+    private Dimension dimension(String name) {
+        try {
+            return Dimension.valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Unknown dimension '" + name.trim() + "', expected one of "
+                    + Arrays.toString(Dimension.values()).toLowerCase(Locale.ROOT));
+        }
+    }
+
+    // Merges into whichever map is larger to keep the parallel reduce cheap
+    private static Map<Long, long[]> merge(Map<Long, long[]> a, Map<Long, long[]> b) {
+        Map<Long, long[]> into = a.size() >= b.size() ? a : b;
+        Map<Long, long[]> from = into == a ? b : a;
+        for (Map.Entry<Long, long[]> entry : from.entrySet()) {
+            long[] target = into.computeIfAbsent(entry.getKey(), k -> new long[3]);
+            for (int i = 0; i < 3; i++) {
+                target[i] += entry.getValue()[i];
+            }
+        }
+        return into;
+    }
+
+    private static long toMinor(BigDecimal amount) {
+        return amount == null ? 0 : amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+    }
+
+    // Monday of the ISO week containing the epoch day (epoch day 0 was a Thursday)
+    private static long weekStart(long epochDay) {
+        return epochDay - Math.floorMod(epochDay + 3, 7);
+    }
+
+    // The dictionaries and fact tables of one load, with the id of the last order loaded into them
+    private static class Cube {
+        private final Dictionary stores = new Dictionary();
+        private final Dictionary categories = new Dictionary();
+        private final Dictionary sections = new Dictionary();
+        private final Dictionary statuses = new Dictionary();
+        private final Dictionary payments = new Dictionary();
+
+        private final FactTable orderFacts = new FactTable(false);
+        private final FactTable itemFacts = new FactTable(true);
+        private long lastOrderId = 0;
+
+        Dictionary dictionary(Dimension dim) {
+            return switch (dim) {
+                case STORE -> stores;
+                case CATEGORY -> categories;
+                case SECTION -> sections;
+                case STATUS -> statuses;
+                case PAYMENT -> payments;
+                default -> null;
+            };
+        }
+    }
+
+    // One group-by query over a table: group keys pack every dimension's offset into a single long
+    private static class Scan {
+        private final Cube cube;
+        private final FactTable table;
+        private final List<Dimension> dims;
+        private final long[] base;
+        private final long[] cardinality;
+        private final long[] stride;
+        private final int[][] groupColumns;
+        private final boolean[] weekly;
+        private final List<int[]> filterColumns = new ArrayList<>();
+        private final List<boolean[]> filterAllowed = new ArrayList<>();
+        private final long fromDay;
+        private final long toDay;
+
+        Scan(Cube cube, FactTable table, List<Dimension> dims, LocalDate from, LocalDate to) {
+            this.cube = cube;
+            this.table = table;
+            this.dims = dims;
+            this.base = new long[dims.size()];
+            this.cardinality = new long[dims.size()];
+            this.stride = new long[dims.size()];
+            this.groupColumns = new int[dims.size()][];
+            this.weekly = new boolean[dims.size()];
+            this.fromDay = from != null ? from.toEpochDay() : Long.MIN_VALUE;
+            this.toDay = to != null ? to.toEpochDay() : Long.MAX_VALUE;
+
+            long nextStride = 1;
+            for (int d = 0; d < dims.size(); d++) {
+                Dimension dim = dims.get(d);
+                groupColumns[d] = table.columns[dim.column];
+                weekly[d] = dim == Dimension.WEEK;
+                if (dim == Dimension.DAY) {
+                    base[d] = table.minDay;
+                    cardinality[d] = table.maxDay - table.minDay + 1;
+                } else if (dim == Dimension.WEEK) {
+                    base[d] = weekStart(table.minDay);
+                    cardinality[d] = (weekStart(table.maxDay) - base[d]) / 7 + 1;
+                } else if (dim == Dimension.MONTH) {
+                    base[d] = table.minMonth;
+                    cardinality[d] = table.maxMonth - table.minMonth + 1;
+                } else {
+                    cardinality[d] = cube.dictionary(dim).size();
+                }
+                cardinality[d] = Math.max(1, cardinality[d]);
+                stride[d] = nextStride;
+                try {
+                    nextStride = Math.multiplyExact(nextStride, cardinality[d]);
+                } catch (ArithmeticException e) {
+                    throw new RuntimeException("Too many distinct groups, drop a dimension or use a coarser one");
+                }
+            }
+        }
+
+        Map<Long, long[]> run(int start, int end) {
+            Map<Long, long[]> groups = new HashMap<>();
+            int[] days = table.columns[Dimension.DAY.column];
+            int filterCount = filterColumns.size();
+            int dimCount = dims.size();
+
+            rows:
+            for (int row = start; row < end; row++) {
+                if (days[row] < fromDay || days[row] > toDay) {
+                    continue;
+                }
+                for (int f = 0; f < filterCount; f++) {
+                    if (!filterAllowed.get(f)[filterColumns.get(f)[row]]) {
+                        continue rows;
+                    }
+                }
+                long key = 0;
+                for (int d = 0; d < dimCount; d++) {
+                    long value = groupColumns[d][row];
+                    long offset = weekly[d] ? (weekStart(value) - base[d]) / 7 : value - base[d];
+                    key += offset * stride[d];
+                }
+                long[] measures = groups.get(key);
+                if (measures == null) {
+                    measures = new long[3];
+                    groups.put(key, measures);
+                }
+                measures[0]++;
+                measures[1] += table.quantity[row];
+                measures[2] += table.value[row];
+            }
+            return groups;
+        }
+
+        Object label(int d, long key) {
+            long offset = (key / stride[d]) % cardinality[d];
+            return switch (dims.get(d)) {
+                case DAY -> LocalDate.ofEpochDay(base[d] + offset).toString();
+                case WEEK -> LocalDate.ofEpochDay(base[d] + offset * 7).toString();
+                case MONTH -> {
+                    long month = base[d] + offset;
+                    yield YearMonth.of((int) (month / 12), (int) (month % 12) + 1).toString();
+                }
+                default -> cube.dictionary(dims.get(d)).label((int) offset);
+            };
+        }
+    }
+
+    // Append-only columns, one row per fact, ordered by orderId
+    private static class FactTable {
+        private int size;
+        private long[] orderIds = new long[1024];
+        private final int[][] columns = new int[COLUMN_COUNT][];
+        private long[] quantity = new long[1024];
+        private long[] value = new long[1024];
+        private int minDay = Integer.MAX_VALUE;
+        private int maxDay = Integer.MIN_VALUE;
+        private int minMonth = Integer.MAX_VALUE;
+        private int maxMonth = Integer.MIN_VALUE;
+
+        FactTable(boolean items) {
+            for (int c = 0; c < COLUMN_COUNT; c++) {
+                if (items || !isItemColumn(c)) {
+                    columns[c] = new int[1024];
+                }
+            }
+        }
+
+        void append(long orderId, int[] dims, long rowQuantity, long rowValue) {
+            if (size == orderIds.length) {
+                int capacity = size * 2;
+                orderIds = Arrays.copyOf(orderIds, capacity);
+                quantity = Arrays.copyOf(quantity, capacity);
+                value = Arrays.copyOf(value, capacity);
+                for (int c = 0; c < COLUMN_COUNT; c++) {
+                    if (columns[c] != null) {
+                        columns[c] = Arrays.copyOf(columns[c], capacity);
+                    }
+                }
+            }
+            orderIds[size] = orderId;
+            for (int c = 0; c < COLUMN_COUNT; c++) {
+                if (columns[c] != null) {
+                    columns[c][size] = dims[c];
+                }
+            }
+            quantity[size] = rowQuantity;
+            value[size] = rowValue;
+            size++;
+
+            int day = dims[Dimension.DAY.column];
+            int month = dims[Dimension.MONTH.column];
+            minDay = Math.min(minDay, day);
+            maxDay = Math.max(maxDay, day);
+            minMonth = Math.min(minMonth, month);
+            maxMonth = Math.max(maxMonth, month);
+        }
+
+        void setStatus(long orderId, int status) {
+            int row = Arrays.binarySearch(orderIds, 0, size, orderId);
+            if (row < 0) {
+                return;
+            }
+            // binarySearch lands on any row of the order; widen to all of its lines
+            while (row > 0 && orderIds[row - 1] == orderId) {
+                row--;
+            }
+            for (; row < size && orderIds[row] == orderId; row++) {
+                columns[Dimension.STATUS.column][row] = status;
+            }
+        }
+
+        void requireColumn(Dimension dim) {
+            if (columns[dim.column] == null) {
+                throw new RuntimeException("Dimension " + dim.name().toLowerCase(Locale.ROOT)
+                        + " is only available for fact=items");
+            }
+        }
+
+        private static boolean isItemColumn(int column) {
+            return column == Dimension.CATEGORY.column || column == Dimension.SECTION.column;
+        }
+    }
+
+    // Maps dimension keys (ids or strings) to dense int codes, with a display label per code
+    private static class Dictionary {
+        private final Map<Object, Integer> codes = new HashMap<>();
+        private final List<Object> keys = new ArrayList<>();
+        private final List<String> labels = new ArrayList<>();
+
+        int code(Object key, String label) {
+            Integer code = codes.get(key);
+            if (code == null) {
+                code = keys.size();
+                codes.put(key, code);
+                keys.add(key);
+                labels.add(label != null ? label : (key != null ? key.toString() : "(none)"));
+            }
+            return code;
+        }
+
+        int size() {
+            return keys.size();
+        }
+
+        String label(int code) {
+            return labels.get(code);
+        }
+
+        boolean matches(int code, String value) {
+            Object key = keys.get(code);
+            return (key != null && key.toString().equalsIgnoreCase(value)) || labels.get(code).equalsIgnoreCase(value);
+        }
+    }
+}
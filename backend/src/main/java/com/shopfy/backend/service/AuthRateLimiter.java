@@ -0,0 +1,174 @@
+package com.shopfy.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token buckets in front of the expensive unauthenticated endpoints: every login runs BCrypt and every
+// send-otp sends an email. Each rule is keyed by client IP or by the contact (email/phone) in the request.
+// Buckets are a single AtomicLong updated by CAS, so checking a key never takes a lock.
+@Service
+public class AuthRateLimiter {
+
+    public enum Rule {
+        LOGIN_IP, LOGIN_CONTACT, OTP_IP, OTP_CONTACT
+    }
+
+    // Bucket state packed into one long: elapsed millis since startup in the high bits, milli-tokens in the low bits
+    private static final int TOKEN_BITS = 20;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long MILLI = 1000;
+
+    @Value("${auth.rate-limit.login-per-ip-per-minute:30}")
+    private int loginPerIpPerMinute;
+
+    @Value("${auth.rate-limit.login-per-contact-per-minute:5}")
+    private int loginPerContactPerMinute;
+
+    @Value("${auth.rate-limit.otp-per-ip-per-hour:20}")
+    private int otpPerIpPerHour;
+
+    @Value("${auth.rate-limit.otp-per-contact-per-hour:5}")
+    private int otpPerContactPerHour;
+
+    @Value("${auth.rate-limit.max-keys:100000}")
+    private int maxKeys;
+
+    private final long startNanos = System.nanoTime();
+    private final Map<Rule, Limit> limits = new EnumMap<>(Rule.class);
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private final Map<Rule, AtomicLong> allowed = new EnumMap<>(Rule.class);
+    private final Map<Rule, AtomicLong> rejected = new EnumMap<>(Rule.class);
+    private final AtomicLong evictions = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        limits.put(Rule.LOGIN_IP, new Limit(loginPerIpPerMinute, 60_000));
+        limits.put(Rule.LOGIN_CONTACT, new Limit(loginPerContactPerMinute, 60_000));
+        limits.put(Rule.OTP_IP, new Limit(otpPerIpPerHour, 3_600_000));
+        limits.put(Rule.OTP_CONTACT, new Limit(otpPerContactPerHour, 3_600_000));
+        for (Rule rule : Rule.values()) {
+            allowed.put(rule, new AtomicLong());
+            rejected.put(rule, new AtomicLong());
+        }
+    }
+
+    // Takes one token for the key; returns 0 when allowed, otherwise the millis until a token is available
+    public long tryAcquire(Rule rule, String key) {
+        Limit limit = limits.get(rule);
+        long now = elapsedMillis();
+        AtomicLong bucket = buckets.get(rule.name() + '|' + key);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys) {
+                evict(now);
+            }
+            bucket = buckets.computeIfAbsent(rule.name() + '|' + key, k -> new AtomicLong(pack(now, limit.capacity)));
+        }
+
+        while (true) {
+            long state = bucket.get();
+            long tokens = limit.refill(unpackTokens(state), now - unpackTime(state));
+            if (tokens < MILLI) {
+                rejected.get(rule).incrementAndGet();
+                return Math.max(1, (MILLI - tokens) * limit.windowMillis / limit.capacity);
+            }
+            // Never move the refill clock backwards when a slower thread arrives with an older timestamp
+            if (bucket.compareAndSet(state, pack(Math.max(now, unpackTime(state)), tokens - MILLI))) {
+                allowed.get(rule).incrementAndGet();
+                return 0;
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> rules = new LinkedHashMap<>();
+        for (Rule rule : Rule.values()) {
+            Map<String, Object> counts = new LinkedHashMap<>();
+            counts.put("allowed", allowed.get(rule).get());
+            counts.put("rejected", rejected.get(rule).get());
+            rules.put(rule.name(), counts);
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("rules", rules);
+        stats.put("trackedKeys", buckets.size());
+        stats.put("maxKeys", maxKeys);
+        stats.put("evictions", evictions.get());
+        return stats;
+    }
+
+    // Table is full: drop buckets that have refilled completely (they carry no state), and if an attack
+    // keeps every bucket busy, drop arbitrary ones down to 90% so memory stays bounded. One thread sweeps at a time.
+    private void evict(long now) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int removed = 0;
+            for (Iterator<Map.Entry<String, AtomicLong>> it = buckets.entrySet().iterator(); it.hasNext();) {
+                Map.Entry<String, AtomicLong> entry = it.next();
+                Limit limit = limits.get(Rule.valueOf(entry.getKey().substring(0, entry.getKey().indexOf('|'))));
+                long state = entry.getValue().get();
+                if (limit.refill(unpackTokens(state), now - unpackTime(state)) >= limit.capacity) {
+                    it.remove();
+                    removed++;
+                }
+            }
+            int target = maxKeys * 9 / 10;
+            for (Iterator<String> it = buckets.keySet().iterator(); it.hasNext() && buckets.size() > target;) {
+                it.next();
+                it.remove();
+                removed++;
+            }
+            evictions.addAndGet(removed);
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    private long elapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private static long pack(long millis, long tokens) {
+        return (millis << TOKEN_BITS) | tokens;
+    }
+
+    private static long unpackTime(long state) {
+        return state >>> TOKEN_BITS;
+    }
+
+    private static long unpackTokens(long state) {
+        return state & TOKEN_MASK;
+    }
+
+    private static class Limit {
+        // In milli-tokens, so fractional refill between requests is not lost
+        private final long capacity;
+        private final long windowMillis;
+
+        Limit(int perWindow, long windowMillis) {
+            if (perWindow < 1 || perWindow * MILLI > TOKEN_MASK) {
+                throw new IllegalArgumentException("Rate limit must be between 1 and " + TOKEN_MASK / MILLI);
+            }
+            this.capacity = perWindow * MILLI;
+            this.windowMillis = windowMillis;
+        }
+
+        // Refills at capacity per window, capped at capacity
+        long refill(long tokens, long elapsedMillis) {
+            if (elapsedMillis <= 0) {
+                return tokens;
+            }
+            return Math.min(capacity, tokens + elapsedMillis * capacity / windowMillis);
+        }
+    }
+}
@@ -26,6 +26,12 @@ public class AuthService {
     @Autowired
     private com.shopfy.backend.repository.StoreRepository storeRepository;
 
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private LoginLookupService loginLookupService;
+
     public AuthResponse register(RegisterRequest request) {
         // 1. Verify OTP (Sent to Email)
         boolean isOtpValid = otpService.verifyOtp(request.getEmail(), request.getOtp());
@@ -52,13 +58,13 @@ public class AuthService {
 
         user = userRepository.save(user);
 
-        return new AuthResponse("dummy-jwt-token", "Registration Successful", user.getFullName(), user.getRole(),
-                user.getUserId(), null);
+        return new AuthResponse(jwtService.issue(user, null), "Registration Successful", user.getFullName(),
+                user.getRole(), user.getUserId(), null);
     }
 
     public AuthResponse login(LoginRequest request) {
-        // 1. Find User by Email OR Mobile
-        User user = userRepository.findByEmailOrMobileNumber(request.getContactInfo())
+        // 1. Find User by Email or Mobile (one unique-index probe, chosen by the identifier's shape)
+        User user = loginLookupService.findForLogin(request.getContactInfo())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         // 2. Check Password
@@ -74,8 +80,8 @@ public class AuthService {
             }
         }
 
-        return new AuthResponse("dummy-jwt-token", "Login Successful", user.getFullName(), user.getRole(),
-                user.getUserId(), storeId);
+        return new AuthResponse(jwtService.issue(user, storeId), "Login Successful", user.getFullName(),
+                user.getRole(), user.getUserId(), storeId);
     }
 
     public User getUserById(Long userId) {
@@ -96,6 +102,9 @@ public class AuthService {
         if (updates.containsKey("emailNotificationsEnabled")) {
             user.setEmailNotificationsEnabled(Boolean.parseBoolean(updates.get("emailNotificationsEnabled")));
         }
+        if (updates.containsKey("emailDigestEnabled")) {
+            user.setEmailDigestEnabled(Boolean.parseBoolean(updates.get("emailDigestEnabled")));
+        }
 
         return userRepository.save(user);
     }
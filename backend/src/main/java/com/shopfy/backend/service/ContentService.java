@@ -7,13 +7,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.util.List;
-import java.util.UUID;
 
 @Service
 public class ContentService {
@@ -21,38 +15,22 @@ public class ContentService {
     @Autowired
     private ContentRepository contentRepository;
 
-    private final Path fileStorageLocation;
-
-    public ContentService() {
-        this.fileStorageLocation = Paths.get("uploads").toAbsolutePath().normalize();
-        try {
-            Files.createDirectories(this.fileStorageLocation);
-        } catch (Exception ex) {
-            throw new RuntimeException("Could not create the directory where the uploaded files will be stored.", ex);
-        }
-    }
+    @Autowired
+    private FileStorageService fileStorageService;
 
     public DashboardContent uploadContent(MultipartFile file, DashboardContent.ContentType type) {
-        String originalFileName = file.getOriginalFilename();
-        String fileExtension = "";
-        if (originalFileName != null && originalFileName.contains(".")) {
-            fileExtension = originalFileName.substring(originalFileName.lastIndexOf("."));
-        }
+        // Streamed to disk by FileStorageService; the stored name carries the sniffed extension
+        String fileName = fileStorageService.saveVideo(file);
 
-        String fileName = UUID.randomUUID().toString() + fileExtension;
+        // Using API endpoint to serve files
+        String fileUrl = "/api/content/files/" + fileName;
 
+        DashboardContent content = new DashboardContent(file.getOriginalFilename(), fileUrl, type);
         try {
-            Path targetLocation = this.fileStorageLocation.resolve(fileName);
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
-
-            // Using API endpoint to serve files
-            String fileUrl = "/api/content/files/" + fileName;
-
-            DashboardContent content = new DashboardContent(originalFileName, fileUrl, type);
             return contentRepository.save(content);
-
-        } catch (IOException ex) {
-            throw new RuntimeException("Could not store file " + fileName + ". Please try again!", ex);
+        } catch (RuntimeException e) {
+            fileStorageService.release(fileUrl);
+            throw e;
         }
     }
 
@@ -0,0 +1,83 @@
+package com.shopfy.backend.service;
+
+import com.shopfy.backend.entity.Order;
+import com.shopfy.backend.entity.Role;
+import com.shopfy.backend.entity.Store;
+import com.shopfy.backend.entity.User;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// JPA lifecycle listener for User, Store and Order that keeps DashboardStatsService counters current.
+// Hibernate resolves it through Spring, so it can be autowired. Updates are applied after commit.
+@Component
+public class DashboardStatsListener {
+
+    // Lazy: the stats service needs repositories, which need the EntityManagerFactory that creates this listener
+    @Autowired
+    @Lazy
+    private DashboardStatsService statsService;
+
+    @PostLoad
+    public void onLoad(Object entity) {
+        if (entity instanceof Order order) {
+            order.setPersistedStatus(order.getStatus());
+        }
+    }
+
+    @PostPersist
+    public void onPersist(Object entity) {
+        if (entity instanceof User user) {
+            Role role = user.getRole();
+            LocalDateTime createdAt = user.getCreatedAt();
+            afterCommit(() -> statsService.userAdded(role, createdAt));
+        } else if (entity instanceof Store) {
+            afterCommit(() -> statsService.storeAdded());
+        } else if (entity instanceof Order order) {
+            Order.OrderStatus status = order.getStatus();
+            BigDecimal amount = order.getTotalAmount();
+            LocalDateTime createdAt = order.getCreatedAt();
+            order.setPersistedStatus(status);
+            afterCommit(() -> statsService.orderPlaced(status, amount, createdAt));
+        }
+    }
+
+    @PostUpdate
+    public void onUpdate(Object entity) {
+        if (entity instanceof Order order) {
+            Order.OrderStatus from = order.getPersistedStatus();
+            Order.OrderStatus to = order.getStatus();
+            if (from != null && from != to) {
+                BigDecimal amount = order.getTotalAmount();
+                afterCommit(() -> statsService.orderStatusChanged(from, to, amount));
+            }
+            order.setPersistedStatus(to);
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        if (entity instanceof User user) {
+            Role role = user.getRole();
+            afterCommit(() -> statsService.userRemoved(role));
+        } else if (entity instanceof Store) {
+            afterCommit(() -> statsService.storeRemoved());
+        } else if (entity instanceof Order order) {
+            Order.OrderStatus status = order.getPersistedStatus() != null ? order.getPersistedStatus()
+                    : order.getStatus();
+            BigDecimal amount = order.getTotalAmount();
+            afterCommit(() -> statsService.orderRemoved(status, amount));
+        }
+    }
+
+    private void afterCommit(Runnable update) {
+        AfterCommit.run("dashboard stats", update);
+    }
+}
@@ -0,0 +1,273 @@
+package com.shopfy.backend.service;
+
+import com.shopfy.backend.entity.Order;
+import com.shopfy.backend.entity.Role;
+import com.shopfy.backend.repository.OrderRepository;
+import com.shopfy.backend.repository.StoreRepository;
+import com.shopfy.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Live admin dashboard counters. Kept current by DashboardStatsListener and periodically
+// reconciled against COUNT queries, so the dashboard never has to scan tables.
+@Service
+public class DashboardStatsService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private StoreRepository storeRepository;
+
+    private static final int HOURLY_BUCKETS = 48;
+    private static final int DAILY_BUCKETS = 30;
+
+    // Every enum constant is added up front, so the maps themselves are never modified afterwards
+    private final Map<Role, AtomicLong> usersByRole = new EnumMap<>(Role.class);
+    private final Map<Order.OrderStatus, AtomicLong> ordersByStatus = new EnumMap<>(Order.OrderStatus.class);
+    // Value of all orders that are not cancelled, in paise
+    private final AtomicLong revenueMinor = new AtomicLong();
+    private final AtomicLong stores = new AtomicLong();
+
+    private final TrendSeries hourly = new TrendSeries(Duration.ofHours(1), HOURLY_BUCKETS);
+    private final TrendSeries daily = new TrendSeries(Duration.ofDays(1), DAILY_BUCKETS);
+
+    private volatile LocalDateTime reconciledAt;
+
+    public DashboardStatsService() {
+        for (Role role : Role.values()) {
+            usersByRole.put(role, new AtomicLong());
+        }
+        for (Order.OrderStatus status : Order.OrderStatus.values()) {
+            ordersByStatus.put(status, new AtomicLong());
+        }
+    }
+
+    public void userAdded(Role role, LocalDateTime createdAt) {
+        if (role != null) {
+            usersByRole.get(role).incrementAndGet();
+        }
+        if (role != Role.ADMIN && createdAt != null) {
+            hourly.add(createdAt, 1, 0, 0);
+            daily.add(createdAt, 1, 0, 0);
+        }
+    }
+
+    public void userRemoved(Role role) {
+        if (role != null) {
+            usersByRole.get(role).decrementAndGet();
+        }
+    }
+
+    public void storeAdded() {
+        stores.incrementAndGet();
+    }
+
+    public void storeRemoved() {
+        stores.decrementAndGet();
+    }
+
+    public void orderPlaced(Order.OrderStatus status, BigDecimal amount, LocalDateTime createdAt) {
+        long minor = toMinor(amount);
+        ordersByStatus.get(status).incrementAndGet();
+        if (status != Order.OrderStatus.CANCELLED) {
+            revenueMinor.addAndGet(minor);
+        }
+        if (createdAt != null) {
+            hourly.add(createdAt, 0, 1, minor);
+            daily.add(createdAt, 0, 1, minor);
+        }
+    }
+
+    public void orderStatusChanged(Order.OrderStatus from, Order.OrderStatus to, BigDecimal amount) {
+        ordersByStatus.get(from).decrementAndGet();
+        ordersByStatus.get(to).incrementAndGet();
+        if (to == Order.OrderStatus.CANCELLED) {
+            revenueMinor.addAndGet(-toMinor(amount));
+        } else if (from == Order.OrderStatus.CANCELLED) {
+            revenueMinor.addAndGet(toMinor(amount));
+        }
+    }
+
+    public void orderRemoved(Order.OrderStatus status, BigDecimal amount) {
+        ordersByStatus.get(status).decrementAndGet();
+        if (status != Order.OrderStatus.CANCELLED) {
+            revenueMinor.addAndGet(-toMinor(amount));
+        }
+    }
+
+    public Map<String, Object> snapshot() {
+        long customers = usersByRole.get(Role.CUSTOMER).get();
+        long storeOwners = usersByRole.get(Role.STORE_OWNER).get();
+
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        long totalOrders = 0;
+        for (Map.Entry<Order.OrderStatus, AtomicLong> entry : ordersByStatus.entrySet()) {
+            byStatus.put(entry.getKey().name(), entry.getValue().get());
+            totalOrders += entry.getValue().get();
+        }
+
+        Map<String, Object> trends = new HashMap<>();
+        trends.put("hourly", hourly.snapshot());
+        trends.put("daily", daily.snapshot());
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalCustomers", customers);
+        stats.put("totalStoreOwners", storeOwners);
+        stats.put("totalUsers", customers + storeOwners);
+        stats.put("totalOrders", totalOrders);
+        stats.put("ordersByStatus", byStatus);
+        stats.put("revenue", BigDecimal.valueOf(revenueMinor.get(), 2));
+        stats.put("totalStores", stores.get());
+        stats.put("trends", trends);
+        stats.put("reconciledAt", reconciledAt);
+        return stats;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        reconcile();
+        loadTrends();
+    }
+
+    // Resets every counter to the database's COUNT. Writes committed while this runs may be off
+    // by a few until the next pass; any drift found is logged.
+    @Scheduled(fixedDelayString = "${admin.stats.reconcile-ms:300000}",
+            initialDelayString = "${admin.stats.reconcile-ms:300000}")
+    public void reconcile() {
+        long drift = 0;
+
+        Map<Role, Long> roleCounts = new EnumMap<>(Role.class);
+        for (Object[] row : userRepository.countUsersByRole()) {
+            roleCounts.put((Role) row[0], (Long) row[1]);
+        }
+        for (Map.Entry<Role, AtomicLong> entry : usersByRole.entrySet()) {
+            long actual = roleCounts.getOrDefault(entry.getKey(), 0L);
+            drift += Math.abs(entry.getValue().getAndSet(actual) - actual);
+        }
+
+        Map<Order.OrderStatus, Long> statusCounts = new EnumMap<>(Order.OrderStatus.class);
+        long revenue = 0;
+        for (Object[] row : orderRepository.countAndSumByStatus()) {
+            Order.OrderStatus status = (Order.OrderStatus) row[0];
+            statusCounts.put(status, (Long) row[1]);
+            if (status != Order.OrderStatus.CANCELLED) {
+                revenue += toMinor((BigDecimal) row[2]);
+            }
+        }
+        for (Map.Entry<Order.OrderStatus, AtomicLong> entry : ordersByStatus.entrySet()) {
+            long actual = statusCounts.getOrDefault(entry.getKey(), 0L);
+            drift += Math.abs(entry.getValue().getAndSet(actual) - actual);
+        }
+        revenueMinor.set(revenue);
+
+        long storeCount = storeRepository.count();
+        drift += Math.abs(stores.getAndSet(storeCount) - storeCount);
+
+        if (reconciledAt != null && drift != 0) {
+            System.out.println("Dashboard stats reconciled, corrected drift of " + drift);
+        }
+        reconciledAt = LocalDateTime.now();
+    }
+
+    private void loadTrends() {
+        LocalDateTime since = LocalDateTime.now().minusDays(DAILY_BUCKETS);
+        hourly.clear();
+        daily.clear();
+        for (LocalDateTime createdAt : userRepository.findSignupTimesSince(since)) {
+            hourly.add(createdAt, 1, 0, 0);
+            daily.add(createdAt, 1, 0, 0);
+        }
+        for (Object[] row : orderRepository.findPlacedSince(since)) {
+            long minor = toMinor((BigDecimal) row[1]);
+            hourly.add((LocalDateTime) row[0], 0, 1, minor);
+            daily.add((LocalDateTime) row[0], 0, 1, minor);
+        }
+    }
+
+    private static long toMinor(BigDecimal amount) {
+        return amount == null ? 0 : amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+    }
+
+    // Fixed ring of time buckets covering the most recent window. Timestamps are server local time;
+    // bucket keys use them as if they were UTC so daily buckets line up with local midnight.
+    private static class TrendSeries {
+        private final long bucketSeconds;
+        private final long[] keys;
+        private final long[] newUsers;
+        private final long[] orders;
+        private final long[] orderValueMinor;
+
+        TrendSeries(Duration bucket, int size) {
+            this.bucketSeconds = bucket.getSeconds();
+            this.keys = new long[size];
+            this.newUsers = new long[size];
+            this.orders = new long[size];
+            this.orderValueMinor = new long[size];
+            Arrays.fill(keys, -1);
+        }
+
+        synchronized void add(LocalDateTime at, long users, long placed, long valueMinor) {
+            long key = keyOf(at);
+            long newest = keyOf(LocalDateTime.now());
+            if (key > newest || key <= newest - keys.length) {
+                return;
+            }
+            int i = (int) Math.floorMod(key, (long) keys.length);
+            if (keys[i] != key) {
+                keys[i] = key;
+                newUsers[i] = 0;
+                orders[i] = 0;
+                orderValueMinor[i] = 0;
+            }
+            newUsers[i] += users;
+            orders[i] += placed;
+            orderValueMinor[i] += valueMinor;
+        }
+
+        // Oldest bucket first; buckets with no activity are reported as zeros
+        synchronized List<Map<String, Object>> snapshot() {
+            long newest = keyOf(LocalDateTime.now());
+            List<Map<String, Object>> buckets = new ArrayList<>();
+            for (long key = newest - keys.length + 1; key <= newest; key++) {
+                int i = (int) Math.floorMod(key, (long) keys.length);
+                boolean live = keys[i] == key;
+                Map<String, Object> bucket = new LinkedHashMap<>();
+                bucket.put("start", LocalDateTime.ofEpochSecond(key * bucketSeconds, 0, ZoneOffset.UTC));
+                bucket.put("newUsers", live ? newUsers[i] : 0L);
+                bucket.put("orders", live ? orders[i] : 0L);
+                bucket.put("orderValue", BigDecimal.valueOf(live ? orderValueMinor[i] : 0L, 2));
+                buckets.add(bucket);
+            }
+            return buckets;
+        }
+
+        synchronized void clear() {
+            Arrays.fill(keys, -1);
+        }
+
+        private long keyOf(LocalDateTime at) {
+            return Math.floorDiv(at.toEpochSecond(ZoneOffset.UTC), bucketSeconds);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.shopfy.backend.service;
+
+import com.shopfy.backend.entity.OtpVerification;
+import com.shopfy.backend.repository.OtpVerificationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+
+// Shared OTP store for multi-node deployments. Lookups go through idx_otp_contact and used or
+// expired rows are purged on a schedule, so the table only holds codes that are still pending.
+@Component
+@ConditionalOnProperty(name = "otp.store", havingValue = "database")
+public class DatabaseOtpStore implements OtpStore {
+
+    @Autowired
+    private OtpVerificationRepository otpRepository;
+
+    @Override
+    @Transactional
+    public void put(String contactInfo, byte[] codeHash, long ttlMillis) {
+        otpRepository.retirePending(contactInfo);
+
+        OtpVerification verification = new OtpVerification();
+        verification.setContactInfo(contactInfo);
+        verification.setOtpCode(HexFormat.of().formatHex(codeHash));
+        verification.setExpiryTime(LocalDateTime.now().plusNanos(ttlMillis * 1_000_000));
+        otpRepository.save(verification);
+    }
+
+    @Override
+    public boolean verify(String contactInfo, byte[] codeHash, int maxAttempts) {
+        Optional<OtpVerification> latest = otpRepository.findFirstByContactInfoOrderByOtpIdDesc(contactInfo);
+        if (latest.isEmpty() || latest.get().isUsed() || !latest.get().getExpiryTime().isAfter(LocalDateTime.now())) {
+            return false;
+        }
+        OtpVerification verification = latest.get();
+        // Conditional updates keep the attempt limit and single use correct across nodes
+        if (otpRepository.recordAttempt(verification.getOtpId(), maxAttempts) == 0) {
+            return false;
+        }
+        return MessageDigest.isEqual(HexFormat.of().parseHex(verification.getOtpCode()), codeHash)
+                && otpRepository.markUsed(verification.getOtpId()) == 1;
+    }
+
+    @Scheduled(fixedDelayString = "${otp.purge-ms:600000}", initialDelayString = "${otp.purge-ms:600000}")
+    public void purge() {
+        int removed = otpRepository.deleteFinished(LocalDateTime.now());
+        if (removed > 0) {
+            System.out.println("Purged " + removed + " used or expired OTPs");
+        }
+    }
+}
@@ -1,38 +1,366 @@
 package com.shopfy.backend.service;
 
+import com.shopfy.backend.entity.StoredFile;
+import com.shopfy.backend.repository.StoredFileRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
-import java.io.File;
+
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.UUID;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
 
+// Writes uploads under uploads.dir by streaming them through a fixed buffer into a temp file and renaming it
+// into place, so heap use does not grow with file size and a half-written file is never visible.
+// The file type is taken from the leading bytes rather than the client's name or Content-Type.
+// Files are content addressed: named by the SHA-256 of their bytes and reference counted in stored_files,
+// so the same photo uploaded twice is stored once and a URL always points at the same bytes.
+// They are sharded two levels deep by the first characters of the name (ab/cd/abcd...) to keep directories
+// small; URLs carry that path, and older flat URLs still resolve (see UploadLayoutMigration).
 @Service
 public class FileStorageService {
 
-    private final String UPLOAD_DIR = "uploads/";
+    @Autowired
+    private StoredFileRepository storedFileRepository;
+
+    @Autowired
+    private ImageVariantService imageVariantService;
+
+    @Autowired
+    private HotFileCache hotFileCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${uploads.dir:uploads}")
+    private String uploadDir;
+
+    @Value("${uploads.max-image-bytes:10485760}")
+    private long maxImageBytes;
+
+    @Value("${uploads.max-video-bytes:104857600}")
+    private long maxVideoBytes;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int SNIFF_BYTES = 16;
+    private static final String IMAGE_URL_PREFIX = "/uploads/";
+    private static final String CONTENT_URL_PREFIX = "/api/content/files/";
+    // Names written before content addressing are UUIDs and have no stored_files row; they are never deleted
+    private static final Pattern HASHED_NAME = Pattern.compile("[0-9a-f]{64}\\.[a-z0-9]+");
+
+    private Path root;
+    // Inside the upload root so the final rename never crosses a filesystem
+    private Path tempDir;
 
-    public FileStorageService() {
-        // Create directory if it doesn't exist
-        File directory = new File(UPLOAD_DIR);
-        if (!directory.exists()) {
-            directory.mkdirs();
+    // Striped by file name: taking or dropping a reference and creating or deleting the file happen together,
+    // so a file is never deleted between a duplicate upload finding it on disk and counting its reference
+    private final Object[] locks = new Object[64];
+    private final AtomicLong deduplicatedUploads = new AtomicLong();
+    private final AtomicLong deduplicatedBytes = new AtomicLong();
+    private final AtomicLong deletedFiles = new AtomicLong();
+    // release() updates counts from an afterCommit callback, where the caller's transaction has already
+    // committed and a joined write would be lost, so it always runs in a transaction of its own
+    private TransactionTemplate ownTransaction;
+
+    @PostConstruct
+    public void init() {
+        ownTransaction = new TransactionTemplate(transactionManager);
+        ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+        root = Paths.get(uploadDir).toAbsolutePath().normalize();
+        tempDir = root.resolve(".tmp");
+        try {
+            Files.createDirectories(tempDir);
+            // Leftovers from uploads interrupted by a restart
+            try (DirectoryStream<Path> stale = Files.newDirectoryStream(tempDir, "*.part")) {
+                for (Path part : stale) {
+                    Files.deleteIfExists(part);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Could not create the directory where uploaded files will be stored", e);
         }
     }
 
+    // Product images and store logos; returns the public URL
     public String saveFile(MultipartFile file) {
         if (file.isEmpty())
             return null;
+        String path = store(file, maxImageBytes, EnumSet.of(MediaKind.JPEG, MediaKind.PNG, MediaKind.GIF,
+                MediaKind.WEBP));
+        // Thumbnails are made in the background; a no-op when these bytes were uploaded before
+        imageVariantService.schedule(root.resolve(path));
+        return IMAGE_URL_PREFIX + path;
+    }
+
+    // Dashboard videos; returns the stored path under the root (served by ContentController)
+    public String saveVideo(MultipartFile file) {
+        if (file.isEmpty()) {
+            throw new RuntimeException("File is empty");
+        }
+        return store(file, maxVideoBytes, EnumSet.of(MediaKind.MP4, MediaKind.MOV, MediaKind.WEBM));
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    // Where a file name lives under the root: ab/cd/abcd... (names too short to shard stay at the top)
+    public static String shardedPath(String fileName) {
+        if (fileName.length() <= 4) {
+            return fileName;
+        }
+        return fileName.substring(0, 2) + "/" + fileName.substring(2, 4) + "/" + fileName;
+    }
+
+    // The stored file for a path taken from a URL, or null when there is none (or the path escapes the root).
+    // A bare name from a URL written before sharding is looked up in its shard once the flat file has moved.
+    public Path resolve(String path) {
+        Path file = confined(path);
+        if (file == null && path.indexOf('/') < 0) {
+            file = confined(shardedPath(path));
+        }
+        return file;
+    }
+
+    // SHA-256 of the file's bytes for content-addressed names, null for names from before content addressing
+    public String contentHash(String path) {
+        String fileName = path.substring(path.lastIndexOf('/') + 1);
+        return HASHED_NAME.matcher(fileName).matches() ? fileName.substring(0, fileName.indexOf('.')) : null;
+    }
+
+    // For a URL that is copied onto another record rather than uploaded (e.g. a logo URL sent as text)
+    public void retain(String url) {
+        String fileName = managedName(url);
+        if (fileName == null) {
+            return;
+        }
+        synchronized (lockFor(fileName)) {
+            storedFileRepository.addReference(fileName);
+        }
+    }
+
+    // Drops one reference once the caller's transaction commits; the file is deleted when none are left
+    public void release(String url) {
+        String fileName = managedName(url);
+        if (fileName == null) {
+            return;
+        }
+        AfterCommit.run("stored file references", () -> {
+            synchronized (lockFor(fileName)) {
+                Boolean unreferenced = ownTransaction.execute(status ->
+                        storedFileRepository.removeReference(fileName) > 0
+                                && storedFileRepository.deleteUnreferenced(fileName) > 0);
+                if (!Boolean.TRUE.equals(unreferenced)) {
+                    return;
+                }
+                try {
+                    // The flat location too, for a file uploaded before sharding and not migrated yet
+                    for (Path file : List.of(root.resolve(shardedPath(fileName)), root.resolve(fileName))) {
+                        Files.deleteIfExists(file);
+                        imageVariantService.deleteVariants(file);
+                        hotFileCache.evict(file);
+                        for (ImageVariantService.Size size : ImageVariantService.Size.values()) {
+                            hotFileCache.evict(imageVariantService.variantPath(file, size));
+                        }
+                    }
+                    deletedFiles.incrementAndGet();
+                } catch (IOException e) {
+                    System.err.println("Could not delete unreferenced upload " + fileName + ": " + e.getMessage());
+                }
+            }
+        });
+    }
 
+    public Map<String, Object> getStats() {
+        Object[] totals = storedFileRepository.summarize().get(0);
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("storedFiles", totals[0]);
+        stats.put("storedBytes", totals[1]);
+        stats.put("references", totals[2]);
+        stats.put("deduplicatedUploads", deduplicatedUploads.get());
+        stats.put("deduplicatedBytes", deduplicatedBytes.get());
+        stats.put("deletedFiles", deletedFiles.get());
+        stats.put("imageVariants", imageVariantService.getStats());
+        stats.put("hotCache", hotFileCache.getStats());
+        return stats;
+    }
+
+    private String store(MultipartFile file, long maxBytes, Set<MediaKind> allowed) {
+        if (file.getSize() > maxBytes) {
+            throw new RuntimeException("File is larger than the " + maxBytes / (1024 * 1024) + " MB limit");
+        }
+
+        Path temp = null;
         try {
-            String fileName = UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
-            Path path = Paths.get(UPLOAD_DIR + fileName);
-            Files.write(path, file.getBytes());
-            return "/uploads/" + fileName; // Return relative URL
-        } catch (IOException e) {
+            temp = Files.createTempFile(tempDir, "upload-", ".part");
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            MediaKind kind;
+            long total;
+            try (InputStream in = file.getInputStream(); OutputStream out = Files.newOutputStream(temp)) {
+                byte[] head = in.readNBytes(SNIFF_BYTES);
+                kind = MediaKind.sniff(head);
+                if (kind == null || !allowed.contains(kind)) {
+                    throw new RuntimeException("Unsupported file type");
+                }
+                out.write(head);
+                sha256.update(head);
+
+                total = head.length;
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    total += read;
+                    if (total > maxBytes) {
+                        throw new RuntimeException("File is larger than the " + maxBytes / (1024 * 1024) + " MB limit");
+                    }
+                    out.write(buffer, 0, read);
+                    sha256.update(buffer, 0, read);
+                }
+            }
+
+            String fileName = HexFormat.of().formatHex(sha256.digest()) + kind.extension;
+            synchronized (lockFor(fileName)) {
+                if (storedFileRepository.addReference(fileName) == 0) {
+                    StoredFile stored = new StoredFile();
+                    stored.setFileName(fileName);
+                    stored.setSizeBytes(total);
+                    stored.setRefCount(1);
+                    storedFileRepository.save(stored);
+                }
+                Path target = root.resolve(shardedPath(fileName));
+                Path flat = root.resolve(fileName);
+                if (Files.exists(target) || Files.exists(flat)) {
+                    // Same bytes are already stored; the temp copy is dropped below
+                    deduplicatedUploads.incrementAndGet();
+                    deduplicatedBytes.addAndGet(total);
+                    if (!Files.exists(target)) {
+                        Files.createDirectories(target.getParent());
+                        Files.move(flat, target, StandardCopyOption.ATOMIC_MOVE);
+                    }
+                } else {
+                    Files.createDirectories(target.getParent());
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                    temp = null;
+                }
+            }
+            return shardedPath(fileName);
+        } catch (IOException | NoSuchAlgorithmException e) {
             throw new RuntimeException("Failed to store file", e);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    System.err.println("Could not delete temp upload " + temp + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private String managedName(String url) {
+        if (url == null) {
+            return null;
+        }
+        String path;
+        if (url.startsWith(IMAGE_URL_PREFIX)) {
+            path = url.substring(IMAGE_URL_PREFIX.length());
+        } else if (url.startsWith(CONTENT_URL_PREFIX)) {
+            path = url.substring(CONTENT_URL_PREFIX.length());
+        } else {
+            return null;
+        }
+        // Flat (before sharding) or sharded path; the reference is counted by bare name either way
+        String name = path.substring(path.lastIndexOf('/') + 1);
+        if (!HASHED_NAME.matcher(name).matches() || !(path.equals(name) || path.equals(shardedPath(name)))) {
+            return null;
+        }
+        return name;
+    }
+
+    private Path confined(String path) {
+        Path file = root.resolve(path).normalize();
+        if (!file.startsWith(root) || file.startsWith(tempDir) || !Files.isRegularFile(file)) {
+            return null;
+        }
+        return file;
+    }
+
+    private Object lockFor(String fileName) {
+        return locks[Math.floorMod(fileName.hashCode(), locks.length)];
+    }
+
+    private enum MediaKind {
+        JPEG(".jpg"), PNG(".png"), GIF(".gif"), WEBP(".webp"), MP4(".mp4"), MOV(".mov"), WEBM(".webm");
+
+        private final String extension;
+
+        MediaKind(String extension) {
+            this.extension = extension;
+        }
+
+        static MediaKind sniff(byte[] head) {
+            if (startsWith(head, 0, 0xFF, 0xD8, 0xFF)) {
+                return JPEG;
+            }
+            if (startsWith(head, 0, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+                return PNG;
+            }
+            if (ascii(head, 0, "GIF87a") || ascii(head, 0, "GIF89a")) {
+                return GIF;
+            }
+            if (ascii(head, 0, "RIFF") && ascii(head, 8, "WEBP")) {
+                return WEBP;
+            }
+            if (ascii(head, 4, "ftyp")) {
+                return ascii(head, 8, "qt  ") ? MOV : MP4;
+            }
+            if (startsWith(head, 0, 0x1A, 0x45, 0xDF, 0xA3)) {
+                return WEBM;
+            }
+            return null;
+        }
+
+        private static boolean startsWith(byte[] head, int offset, int... expected) {
+            if (head.length < offset + expected.length) {
+                return false;
+            }
+            for (int i = 0; i < expected.length; i++) {
+                if ((head[offset + i] & 0xFF) != expected[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean ascii(byte[] head, int offset, String expected) {
+            byte[] bytes = expected.getBytes(StandardCharsets.US_ASCII);
+            return head.length >= offset + bytes.length
+                    && Arrays.equals(head, offset, offset + bytes.length, bytes, 0, bytes.length);
         }
     }
 }
@@ -0,0 +1,172 @@
+package com.shopfy.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Keeps the most recently served small uploads (thumbnails, logos) in direct ByteBuffers so catalog pages
+// are answered without a disk read. Bounded by total bytes; stored files never change in place, so an
+// entry only has to go when FileStorageService deletes the file.
+@Service
+public class HotFileCache {
+
+    @Value("${uploads.hot-cache.max-bytes:67108864}")
+    private long maxBytes;
+
+    @Value("${uploads.hot-cache.max-file-bytes:262144}")
+    private long maxFileBytes;
+
+    // Access order, so iteration starts at the least recently served file
+    private final LinkedHashMap<Path, CachedFile> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long cachedBytes;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    // The cached copy of an already resolved file, loading it if it is small enough; otherwise null
+    public Resource get(Path file) throws IOException {
+        synchronized (this) {
+            CachedFile cached = entries.get(file);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+        }
+        misses.incrementAndGet();
+        long size = Files.size(file);
+        if (maxBytes <= 0 || size > maxFileBytes) {
+            return null;
+        }
+
+        // Read outside the lock; two threads loading the same file at once just keep the later copy
+        ByteBuffer buffer = ByteBuffer.allocateDirect((int) size);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    break;
+                }
+            }
+        }
+        buffer.flip();
+        CachedFile loaded = new CachedFile(file, buffer.asReadOnlyBuffer(), Files.getLastModifiedTime(file).toMillis());
+
+        synchronized (this) {
+            CachedFile previous = entries.put(file, loaded);
+            if (previous != null) {
+                cachedBytes -= previous.buffer.capacity();
+            }
+            cachedBytes += size;
+            for (Iterator<CachedFile> it = entries.values().iterator(); it.hasNext() && cachedBytes > maxBytes;) {
+                cachedBytes -= it.next().buffer.capacity();
+                it.remove();
+            }
+        }
+        return loaded;
+    }
+
+    public synchronized void evict(Path file) {
+        CachedFile removed = entries.remove(file);
+        if (removed != null) {
+            cachedBytes -= removed.buffer.capacity();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (this) {
+            stats.put("entries", entries.size());
+            stats.put("bytes", cachedBytes);
+        }
+        stats.put("maxBytes", maxBytes);
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        return stats;
+    }
+
+    // Served like the file itself (name, length and modification time drive content type and validators),
+    // but every read is a view of the shared buffer
+    private static class CachedFile extends AbstractResource {
+        private final Path file;
+        private final ByteBuffer buffer;
+        private final long lastModified;
+
+        CachedFile(Path file, ByteBuffer buffer, long lastModified) {
+            this.file = file;
+            this.buffer = buffer;
+            this.lastModified = lastModified;
+        }
+
+        @Override
+        public String getDescription() {
+            return "cached file [" + file + "]";
+        }
+
+        @Override
+        public String getFilename() {
+            return file.getFileName().toString();
+        }
+
+        @Override
+        public boolean exists() {
+            return true;
+        }
+
+        @Override
+        public long contentLength() {
+            return buffer.capacity();
+        }
+
+        @Override
+        public long lastModified() {
+            return lastModified;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            ByteBuffer view = buffer.duplicate();
+            return new InputStream() {
+                @Override
+                public int read() {
+                    return view.hasRemaining() ? view.get() & 0xFF : -1;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    if (len == 0) {
+                        return 0;
+                    }
+                    if (!view.hasRemaining()) {
+                        return -1;
+                    }
+                    int count = Math.min(len, view.remaining());
+                    view.get(b, off, count);
+                    return count;
+                }
+
+                @Override
+                public long skip(long n) {
+                    int count = (int) Math.max(0, Math.min(n, view.remaining()));
+                    view.position(view.position() + count);
+                    return count;
+                }
+
+                @Override
+                public int available() {
+                    return view.remaining();
+                }
+            };
+        }
+    }
+}
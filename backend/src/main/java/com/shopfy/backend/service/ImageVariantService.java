@@ -0,0 +1,245 @@
+package com.shopfy.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Makes downscaled JPEG copies of uploaded images next to the original (<name>_thumb.jpg, <name>_medium.jpg)
+// so catalog pages can ask for ?size=thumb instead of the multi-megabyte camera original.
+// Work runs on a small bounded pool off the request thread; until a variant exists (or if it was dropped
+// because the queue was full) the original is served and the variant is requested again.
+@Service
+public class ImageVariantService {
+
+    public enum Size {
+        THUMB, MEDIUM;
+
+        public static Size parse(String value) {
+            for (Size size : values()) {
+                if (size.name().equalsIgnoreCase(value)) {
+                    return size;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final Set<String> SOURCE_EXTENSIONS = Set.of(".jpg", ".png", ".gif");
+
+    @Value("${uploads.variants.thumb-px:320}")
+    private int thumbPx;
+
+    @Value("${uploads.variants.medium-px:960}")
+    private int mediumPx;
+
+    @Value("${uploads.variants.quality:0.8}")
+    private float quality;
+
+    @Value("${uploads.variants.threads:2}")
+    private int threads;
+
+    @Value("${uploads.variants.queue-capacity:200}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+    // Originals queued or being processed, so repeated requests for a missing variant queue it once
+    private final Set<Path> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicLong generated = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "image-variants-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public boolean isSource(Path original) {
+        String name = original.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        if (dot <= 0 || !SOURCE_EXTENSIONS.contains(name.substring(dot).toLowerCase(Locale.ROOT))) {
+            return false;
+        }
+        for (Size size : Size.values()) {
+            if (name.endsWith("_" + size.name().toLowerCase(Locale.ROOT) + ".jpg")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public Path variantPath(Path original, Size size) {
+        String name = original.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return original.resolveSibling(name.substring(0, dot) + "_" + size.name().toLowerCase(Locale.ROOT) + ".jpg");
+    }
+
+    // Queues variant generation unless every variant already exists; never blocks the caller
+    public void schedule(Path original) {
+        if (!isSource(original) || !pending.add(original)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(original);
+                } finally {
+                    pending.remove(original);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(original);
+            dropped.incrementAndGet();
+        }
+    }
+
+    public void deleteVariants(Path original) {
+        for (Size size : Size.values()) {
+            try {
+                Files.deleteIfExists(variantPath(original, size));
+            } catch (IOException e) {
+                System.err.println("Could not delete image variant of " + original.getFileName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("generated", generated.get());
+        stats.put("failed", failed.get());
+        stats.put("droppedQueueFull", dropped.get());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("active", executor.getActiveCount());
+        return stats;
+    }
+
+    private void generate(Path original) {
+        Map<Size, Integer> targets = new LinkedHashMap<>();
+        targets.put(Size.MEDIUM, mediumPx);
+        targets.put(Size.THUMB, thumbPx);
+        targets.keySet().removeIf(size -> Files.exists(variantPath(original, size)));
+        if (targets.isEmpty() || !Files.exists(original)) {
+            return;
+        }
+
+        try {
+            BufferedImage source = read(original, targets.values().stream().max(Integer::compare).orElseThrow());
+            if (source == null) {
+                failed.incrementAndGet();
+                return;
+            }
+            // Largest first, each step scaling the previous result, so every pass works on a smaller image
+            for (Map.Entry<Size, Integer> target : targets.entrySet()) {
+                source = scale(source, target.getValue());
+                write(source, variantPath(original, target.getKey()));
+                generated.incrementAndGet();
+            }
+        } catch (IOException | RuntimeException e) {
+            failed.incrementAndGet();
+            System.err.println("Could not create image variants of " + original.getFileName() + ": " + e.getMessage());
+        }
+    }
+
+    // Decodes with source subsampling when the original is far larger than needed, so a 12-megapixel
+    // photo never becomes a full-size raster in memory
+    private BufferedImage read(Path original, int largestTarget) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int longestEdge = Math.max(reader.getWidth(0), reader.getHeight(0));
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, longestEdge / (largestTarget * 2));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Fits the image within maxEdge (never upscaling) on a white background, since JPEG has no alpha
+    private BufferedImage scale(BufferedImage image, int maxEdge) {
+        double ratio = Math.min(1.0, (double) maxEdge / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    // Written to a temp name and renamed, so a request never sees a half-written variant
+    private void write(BufferedImage image, Path target) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".part");
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
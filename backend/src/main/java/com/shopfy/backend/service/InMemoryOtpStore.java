@@ -0,0 +1,102 @@
+package com.shopfy.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Single-node OTP store: one pending code per contact, expired by a timing wheel so cleanup work is
+// proportional to what expires rather than to everything pending
+@Component
+@ConditionalOnProperty(name = "otp.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOtpStore implements OtpStore {
+
+    private static final int WHEEL_SLOTS = 128;
+
+    @Value("${otp.wheel-tick-ms:5000}")
+    private long tickMillis;
+
+    private final ConcurrentHashMap<String, Pending> pending = new ConcurrentHashMap<>();
+    // Slot i holds codes whose deadline tick is i modulo WHEEL_SLOTS; longer TTLs just wait another lap
+    private final List<ConcurrentLinkedQueue<Pending>> wheel = newWheel();
+    private long lastTick = -1;
+
+    @Override
+    public void put(String contactInfo, byte[] codeHash, long ttlMillis) {
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        Pending entry = new Pending(contactInfo, codeHash, expiresAt);
+        pending.put(contactInfo, entry);
+        wheel.get(slotFor(expiresAt)).add(entry);
+    }
+
+    @Override
+    public boolean verify(String contactInfo, byte[] codeHash, int maxAttempts) {
+        Pending entry = pending.get(contactInfo);
+        if (entry == null) {
+            return false;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis() || entry.attempts.incrementAndGet() > maxAttempts) {
+            pending.remove(contactInfo, entry);
+            return false;
+        }
+        // remove() succeeds for exactly one caller, so a code can't be used twice by concurrent requests
+        return MessageDigest.isEqual(entry.codeHash, codeHash) && pending.remove(contactInfo, entry);
+    }
+
+    @Scheduled(fixedDelayString = "${otp.wheel-tick-ms:5000}")
+    public void expire() {
+        long now = System.currentTimeMillis();
+        long currentTick = now / tickMillis;
+        // Catch up on ticks a slow run skipped, but never more than one full lap
+        long fromTick = lastTick < 0 ? currentTick : Math.max(lastTick + 1, currentTick - WHEEL_SLOTS + 1);
+        for (long tick = fromTick; tick <= currentTick; tick++) {
+            ConcurrentLinkedQueue<Pending> slot = wheel.get((int) (tick % WHEEL_SLOTS));
+            // Only look at what was queued before this pass; entries due on a later lap go back in
+            for (int i = slot.size(); i > 0; i--) {
+                Pending entry = slot.poll();
+                if (entry == null) {
+                    break;
+                }
+                if (entry.expiresAt <= now) {
+                    pending.remove(entry.contactInfo, entry); // no-op if it was replaced or used
+                } else {
+                    slot.add(entry);
+                }
+            }
+        }
+        lastTick = currentTick;
+    }
+
+    // The tick after the deadline, so the entry has always expired by the time its slot is swept
+    private int slotFor(long expiresAt) {
+        return (int) ((expiresAt / tickMillis + 1) % WHEEL_SLOTS);
+    }
+
+    private static List<ConcurrentLinkedQueue<Pending>> newWheel() {
+        List<ConcurrentLinkedQueue<Pending>> slots = new ArrayList<>(WHEEL_SLOTS);
+        for (int i = 0; i < WHEEL_SLOTS; i++) {
+            slots.add(new ConcurrentLinkedQueue<>());
+        }
+        return slots;
+    }
+
+    private static class Pending {
+        private final String contactInfo;
+        private final byte[] codeHash;
+        private final long expiresAt;
+        private final AtomicInteger attempts = new AtomicInteger();
+
+        Pending(String contactInfo, byte[] codeHash, long expiresAt) {
+            this.contactInfo = contactInfo;
+            this.codeHash = codeHash;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.shopfy.backend.service;
+
+import com.shopfy.backend.dto.AuthenticatedUser;
+import com.shopfy.backend.entity.Role;
+import com.shopfy.backend.entity.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+
+// Issues and verifies the HS256 tokens returned by login/register. The key and parser are built once;
+// every instance sharing jwt.secret accepts the same tokens, so no session state is needed.
+@Service
+public class JwtService {
+
+    private static final int MIN_KEY_BYTES = 32;
+
+    @Value("${jwt.secret}")
+    private String secret;
+
+    @Value("${jwt.expiration-ms:86400000}")
+    private long expirationMs;
+
+    private SecretKey key;
+    private JwtParser parser;
+
+    // Refuses to start without a real key: a known or short key would let anyone mint tokens for any user
+    @PostConstruct
+    public void init() {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("jwt.secret is not set; set JWT_SECRET to a base64 key of at least 256 bits");
+        }
+        byte[] keyBytes;
+        try {
+            keyBytes = Decoders.BASE64.decode(secret.trim());
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("jwt.secret is not valid base64", e);
+        }
+        if (keyBytes.length < MIN_KEY_BYTES) {
+            throw new IllegalStateException("jwt.secret is " + keyBytes.length * 8 + " bits; at least "
+                    + MIN_KEY_BYTES * 8 + " are required");
+        }
+        key = Keys.hmacShaKeyFor(keyBytes);
+        parser = Jwts.parserBuilder().setSigningKey(key).build();
+    }
+
+    public String issue(User user, Long storeId) {
+        Date now = new Date();
+        JwtBuilder builder = Jwts.builder()
+                .setSubject(user.getUserId().toString())
+                .claim("role", user.getRole().name())
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + expirationMs));
+        if (storeId != null) {
+            builder.claim("storeId", storeId);
+        }
+        return builder.signWith(key, SignatureAlgorithm.HS256).compact();
+    }
+
+    // Throws JwtException for a bad signature, malformed or expired token
+    public AuthenticatedUser verify(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        String role = claims.get("role", String.class);
+        Number storeId = claims.get("storeId", Number.class);
+        if (claims.getSubject() == null || role == null) {
+            throw new JwtException("Token is missing identity claims");
+        }
+        return new AuthenticatedUser(Long.valueOf(claims.getSubject()), Role.valueOf(role),
+                storeId != null ? storeId.longValue() : null);
+    }
+}
@@ -0,0 +1,28 @@
+package com.shopfy.backend.service;
+
+import com.shopfy.backend.entity.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+// JPA lifecycle listener on User that clears LoginLookupService's "no such user" entries for a user's
+// email and mobile number once the write that claimed them commits
+@Component
+public class LoginLookupListener {
+
+    // Lazy for the same reason as DashboardStatsListener: the service's repositories need the
+    // EntityManagerFactory that creates this listener
+    @Autowired
+    @Lazy
+    private LoginLookupService loginLookupService;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(User user) {
+        String email = user.getEmail();
+        String mobileNumber = user.getMobileNumber();
+        AfterCommit.run("login lookup cache", () -> loginLookupService.forget(email, mobileNumber));
+    }
+}
@@ -0,0 +1,102 @@
+package com.shopfy.backend.service;
+
+import com.shopfy.backend.entity.User;
+import com.shopfy.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+// Resolves a login identifier with one unique-index probe: anything containing '@' is an email,
+// everything else a mobile number. Identifiers that matched nobody are remembered for a short while so
+// enumeration traffic stops at this map; LoginLookupListener forgets them as soon as a user takes one.
+// The map is per node: a registration handled by another instance only clears its own map, so here the
+// identifier can keep answering "not found" until its entry expires (auth.login-lookup.negative-ttl-ms).
+@Service
+public class LoginLookupService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${auth.login-lookup.negative-cache-size:10000}")
+    private int negativeCacheSize;
+
+    @Value("${auth.login-lookup.negative-ttl-ms:120000}")
+    private long negativeTtlMillis;
+
+    // Bumped by every forget(); a miss is only remembered if no forget ran while its probe was in flight,
+    // otherwise a registration committing between the probe and the put would be hidden for the full TTL
+    private long forgetGeneration;
+
+    // Exactly the string that was probed -> expiry (epoch millis), so a miss only ever answers for the same
+    // probe and a padded or re-cased variant can't shadow a real account. Access ordered so the least
+    // recently probed is evicted first.
+    private final LinkedHashMap<String, Long> unknown = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > negativeCacheSize;
+        }
+    };
+
+    public Optional<User> findForLogin(String identifier) {
+        if (identifier == null || identifier.isBlank()) {
+            return Optional.empty();
+        }
+        long generation;
+        synchronized (unknown) {
+            if (isKnownUnknown(identifier)) {
+                return Optional.empty();
+            }
+            generation = forgetGeneration;
+        }
+
+        Optional<User> user = identifier.indexOf('@') >= 0
+                ? userRepository.findByEmail(identifier)
+                : userRepository.findByMobileNumber(identifier);
+        if (user.isEmpty()) {
+            synchronized (unknown) {
+                if (generation == forgetGeneration) {
+                    unknown.put(identifier, System.currentTimeMillis() + negativeTtlMillis);
+                }
+            }
+        }
+        return user;
+    }
+
+    // A user now owns these identifiers (registration or an approved email/mobile change). Every cached
+    // variant that the database may now match is dropped too: the columns compare case-insensitively, and
+    // under PAD SPACE collations trailing blanks are ignored. Registrations are rare, so scanning the map is fine.
+    public void forget(String... identifiers) {
+        synchronized (unknown) {
+            forgetGeneration++;
+            for (String identifier : identifiers) {
+                if (identifier != null) {
+                    String loose = looseForm(identifier);
+                    unknown.keySet().removeIf(probed -> looseForm(probed).equals(loose));
+                }
+            }
+        }
+    }
+
+    // Only used to find cached variants to drop, never to decide that an identifier is unknown
+    private static String looseForm(String identifier) {
+        return identifier.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Caller holds the lock on unknown
+    private boolean isKnownUnknown(String identifier) {
+        Long expiresAt = unknown.get(identifier);
+        if (expiresAt == null) {
+            return false;
+        }
+        if (expiresAt <= System.currentTimeMillis()) {
+            unknown.remove(identifier);
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,263 @@
+package com.shopfy.backend.service;
+
+import com.shopfy.backend.entity.LoginDailyRollup;
+import com.shopfy.backend.repository.LoginDailyRollupRepository;
+import com.shopfy.backend.repository.LoginSessionRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Daily per-user login rollups and retention of the raw login_sessions rows behind them.
+// LoginSessionService reports the (user, day) pairs each batch touched; only those are recomputed,
+// from that user's recent sessions, so the admin activity view never scans a user's full history.
+@Service
+public class LoginRollupService {
+
+    @Autowired
+    private LoginSessionRepository loginSessionRepository;
+
+    @Autowired
+    private LoginDailyRollupRepository rollupRepository;
+
+    @Value("${login-sessions.retention-days:90}")
+    private int retentionDays;
+
+    private static final int BACKFILL_PAGE = 5000;
+    private static final int PURGE_CHUNK = 1000;
+
+    // Called inside the session writer's transaction, after its batch is written.
+    // Days older than the retention window are skipped: their raw sessions may already be gone.
+    public void refresh(Map<Long, Set<LocalDate>> dirtyDays) {
+        LocalDate oldestKept = LocalDate.now().minusDays(retentionDays - 1L);
+        LocalDate from = null;
+        for (Set<LocalDate> days : dirtyDays.values()) {
+            days.removeIf(day -> day.isBefore(oldestKept));
+            for (LocalDate day : days) {
+                from = from == null || day.isBefore(from) ? day : from;
+            }
+        }
+        if (from == null) {
+            return;
+        }
+
+        Map<RollupKey, DayTotals> totals = new HashMap<>();
+        for (Object[] row : loginSessionRepository.findRollupInputs(dirtyDays.keySet(), from.atStartOfDay())) {
+            RollupKey key = new RollupKey((Long) row[0], ((LocalDateTime) row[1]).toLocalDate());
+            if (dirtyDays.get(key.userId).contains(key.day)) {
+                totals.computeIfAbsent(key, k -> new DayTotals())
+                        .add((LocalDateTime) row[1], (LocalDateTime) row[2], (String) row[3], (String) row[4]);
+            }
+        }
+
+        Map<RollupKey, LoginDailyRollup> existing = new HashMap<>();
+        for (LoginDailyRollup rollup : rollupRepository.findByUserIdInAndActivityDateGreaterThanEqual(
+                dirtyDays.keySet(), from)) {
+            existing.put(new RollupKey(rollup.getUserId(), rollup.getActivityDate()), rollup);
+        }
+        save(totals, existing);
+    }
+
+    public Map<String, Object> getUserSummary(Long userId, int days) {
+        List<LoginDailyRollup> rollups = rollupRepository
+                .findByUserIdAndActivityDateGreaterThanEqualOrderByActivityDateDesc(userId,
+                        LocalDate.now().minusDays(days - 1L));
+        long sessions = 0;
+        long completed = 0;
+        long duration = 0;
+        for (LoginDailyRollup rollup : rollups) {
+            sessions += rollup.getSessionCount();
+            completed += rollup.getCompletedSessions();
+            duration += rollup.getTotalDurationSeconds();
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("days", days);
+        summary.put("totalSessions", sessions);
+        summary.put("completedSessions", completed);
+        summary.put("totalDurationSeconds", duration);
+        summary.put("avgDurationSeconds", completed > 0 ? duration / completed : 0);
+        summary.put("activeSessions", loginSessionRepository.countByUser_UserIdAndLogoutTimeIsNull(userId));
+        summary.put("daily", rollups);
+        return summary;
+    }
+
+    // Sessions recorded before rollups existed: build them once from the raw table. Runs while the context
+    // is starting, before the scheduler and web server are up and before LoginSessionService (which depends
+    // on this bean) can write a batch, so an empty rollup table here really means nothing was rolled up yet.
+    // Sessions are read per user in login order, so a (user, day) is finished as soon as the next one starts
+    // and each page's finished rollups are saved before the next page is read.
+    @PostConstruct
+    public void backfill() {
+        if (rollupRepository.count() > 0) {
+            return;
+        }
+        Map<RollupKey, DayTotals> finished = new HashMap<>();
+        RollupKey openKey = null;
+        DayTotals open = null;
+        Long afterUserId = 0L;
+        LocalDateTime afterLogin = LocalDate.EPOCH.atStartOfDay();
+        Long afterId = 0L;
+        long saved = 0;
+        List<Object[]> page;
+        do {
+            page = loginSessionRepository.findRollupInputsAfter(afterUserId, afterLogin, afterId,
+                    PageRequest.of(0, BACKFILL_PAGE));
+            for (Object[] row : page) {
+                afterId = (Long) row[0];
+                afterUserId = (Long) row[1];
+                afterLogin = (LocalDateTime) row[2];
+                RollupKey key = new RollupKey(afterUserId, afterLogin.toLocalDate());
+                if (!key.equals(openKey)) {
+                    if (openKey != null) {
+                        finished.put(openKey, open);
+                    }
+                    openKey = key;
+                    open = new DayTotals();
+                }
+                open.add(afterLogin, (LocalDateTime) row[3], (String) row[4], (String) row[5]);
+            }
+            saved += saveBackfilled(finished);
+            finished.clear();
+        } while (page.size() == BACKFILL_PAGE);
+        if (openKey != null) {
+            finished.put(openKey, open);
+            saved += saveBackfilled(finished);
+        }
+        if (saved > 0) {
+            System.out.println("Backfilled " + saved + " daily login rollups");
+        }
+    }
+
+    // Another instance sharing the database may be backfilling at the same time, or may have rolled up a
+    // login meanwhile; either way its rollup for that day is complete, so on a unique key collision the
+    // days it already wrote are dropped and the rest of the page is saved again
+    private int saveBackfilled(Map<RollupKey, DayTotals> totals) {
+        while (!totals.isEmpty()) {
+            try {
+                save(totals, Map.of());
+                return totals.size();
+            } catch (DataIntegrityViolationException e) {
+                Set<Long> userIds = new HashSet<>();
+                LocalDate from = null;
+                for (RollupKey key : totals.keySet()) {
+                    userIds.add(key.userId);
+                    from = from == null || key.day.isBefore(from) ? key.day : from;
+                }
+                int before = totals.size();
+                for (LoginDailyRollup rollup : rollupRepository.findByUserIdInAndActivityDateGreaterThanEqual(
+                        userIds, from)) {
+                    totals.remove(new RollupKey(rollup.getUserId(), rollup.getActivityDate()));
+                }
+                if (totals.size() == before) {
+                    throw e;
+                }
+            }
+        }
+        return 0;
+    }
+
+    // Raw sessions older than the retention window are deleted in id chunks so no single statement
+    // locks a large range; open sessions are kept until they close. Their rollups stay.
+    @Scheduled(cron = "${login-sessions.retention-cron:0 30 3 * * *}")
+    public void purgeExpiredSessions() {
+        LocalDateTime cutoff = LocalDate.now().minusDays(retentionDays - 1L).atStartOfDay();
+        long removed = 0;
+        List<Long> ids;
+        do {
+            ids = loginSessionRepository.findExpiredSessionIds(cutoff, PageRequest.of(0, PURGE_CHUNK));
+            if (!ids.isEmpty()) {
+                loginSessionRepository.deleteAllByIdInBatch(ids);
+                removed += ids.size();
+            }
+        } while (ids.size() == PURGE_CHUNK);
+        if (removed > 0) {
+            System.out.println("Removed " + removed + " login sessions older than " + retentionDays + " days");
+        }
+    }
+
+    private void save(Map<RollupKey, DayTotals> totals, Map<RollupKey, LoginDailyRollup> existing) {
+        List<LoginDailyRollup> changed = new ArrayList<>();
+        for (Map.Entry<RollupKey, DayTotals> entry : totals.entrySet()) {
+            LoginDailyRollup rollup = existing.get(entry.getKey());
+            if (rollup == null) {
+                rollup = new LoginDailyRollup();
+                rollup.setUserId(entry.getKey().userId);
+                rollup.setActivityDate(entry.getKey().day);
+            }
+            entry.getValue().applyTo(rollup);
+            changed.add(rollup);
+        }
+        rollupRepository.saveAll(changed);
+    }
+
+    private static class RollupKey {
+        private final Long userId;
+        private final LocalDate day;
+
+        RollupKey(Long userId, LocalDate day) {
+            this.userId = userId;
+            this.day = day;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof RollupKey other && userId.equals(other.userId) && day.equals(other.day);
+        }
+
+        @Override
+        public int hashCode() {
+            return userId.hashCode() * 31 + day.hashCode();
+        }
+    }
+
+    private static class DayTotals {
+        private long sessions;
+        private long completed;
+        private long durationSeconds;
+        private final Set<String> ips = new HashSet<>();
+        private final Set<String> userAgents = new HashSet<>();
+        private LocalDateTime first;
+        private LocalDateTime last;
+
+        void add(LocalDateTime login, LocalDateTime logout, String ip, String userAgent) {
+            sessions++;
+            if (logout != null) {
+                completed++;
+                durationSeconds += Math.max(0, Duration.between(login, logout).getSeconds());
+            }
+            if (ip != null) {
+                ips.add(ip);
+            }
+            if (userAgent != null) {
+                userAgents.add(userAgent);
+            }
+            first = first == null || login.isBefore(first) ? login : first;
+            last = last == null || login.isAfter(last) ? login : last;
+        }
+
+        void applyTo(LoginDailyRollup rollup) {
+            rollup.setSessionCount(sessions);
+            rollup.setCompletedSessions(completed);
+            rollup.setTotalDurationSeconds(durationSeconds);
+            rollup.setDistinctIps(ips.size());
+            rollup.setDistinctUserAgents(userAgents.size());
+            rollup.setFirstLoginAt(first);
+            rollup.setLastLoginAt(last);
+        }
+    }
+}
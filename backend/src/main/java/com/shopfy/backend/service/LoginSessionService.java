@@ -4,13 +4,37 @@ import com.shopfy.backend.entity.LoginSession;
 import com.shopfy.backend.entity.User;
 import com.shopfy.backend.repository.LoginSessionRepository;
 import com.shopfy.backend.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
-
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Login and logout only enqueue an event; a writer on its own thread drains the queue and applies it as one
+// batch of UPDATEs (closing open sessions, via idx_login_sessions_user_open) and one batch of INSERTs.
+// The same transaction refreshes the daily rollups for the days the batch touched.
+// Session reads can therefore lag a login by up to login-sessions.flush-ms.
 @Service
 public class LoginSessionService {
 
@@ -20,45 +44,164 @@ public class LoginSessionService {
     @Autowired
     private UserRepository userRepository;
 
-    public LoginSession recordLogin(Long userId, String ipAddress, String userAgent) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
 
-        // Close any active sessions for this user (in case logout wasn't recorded)
-        Optional<LoginSession> activeSession = loginSessionRepository.findByUserAndLogoutTimeIsNull(user);
-        if (activeSession.isPresent()) {
-            LoginSession session = activeSession.get();
-            session.setLogoutTime(LocalDateTime.now());
-            loginSessionRepository.save(session);
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private LoginRollupService loginRollupService;
+
+    @Value("${login-sessions.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${login-sessions.batch-size:500}")
+    private int batchSize;
+
+    @Value("${login-sessions.flush-ms:250}")
+    private long flushMs;
+
+    private static final int MAX_SESSION_PAGE_SIZE = 200;
+
+    private BlockingQueue<SessionEvent> events;
+    // Events of a batch the database could not take (connection lost, timeout); written first next time
+    private final List<SessionEvent> unwritten = new ArrayList<>();
+    // Not a @Scheduled job: those share the scheduler's threads, and a slow digest or analytics run
+    // must not hold up login writes until the queue overflows
+    private ScheduledExecutorService writer;
+
+    @PostConstruct
+    public void init() {
+        events = new LinkedBlockingQueue<>(queueCapacity);
+        writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "login-session-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writer.scheduleWithFixedDelay(this::flush, flushMs, flushMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(10, TimeUnit.SECONDS);
+        flush();
+    }
+
+    public void recordLogin(Long userId, String ipAddress, String userAgent) {
+        enqueue(new SessionEvent(userId, LocalDateTime.now(), true, ipAddress, userAgent));
+    }
+
+    public void recordLogout(Long userId) {
+        if (userId == null) {
+            throw new RuntimeException("userId is required");
         }
+        enqueue(new SessionEvent(userId, LocalDateTime.now(), false, null, null));
+    }
 
-        // Create new login session
-        LoginSession newSession = new LoginSession();
-        newSession.setUser(user);
-        newSession.setLoginTime(LocalDateTime.now());
-        newSession.setIpAddress(ipAddress);
-        newSession.setUserAgent(userAgent);
+    // Bookkeeping must never hold up a login: when the writer is this far behind, the event is dropped
+    private void enqueue(SessionEvent event) {
+        if (!events.offer(event)) {
+            System.err.println("Login session queue full, dropping " + (event.login ? "login" : "logout")
+                    + " for user " + event.userId);
+        }
+    }
 
-        return loginSessionRepository.save(newSession);
+    private synchronized void flush() {
+        while (true) {
+            List<SessionEvent> batch = new ArrayList<>(unwritten);
+            unwritten.clear();
+            events.drainTo(batch, Math.max(0, batchSize - batch.size()));
+            if (batch.isEmpty() || !writeBatch(batch)) {
+                return;
+            }
+        }
     }
 
-    public LoginSession recordLogout(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    // A constraint violation means some event in the batch is bad (e.g. its user was deleted), so the batch
+    // is halved until that event is isolated and dropped. Any other failure keeps the events in unwritten
+    // and returns false, so the next run retries them in their original order.
+    private boolean writeBatch(List<SessionEvent> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(batch));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            if (batch.size() == 1) {
+                SessionEvent event = batch.get(0);
+                System.err.println("Dropping " + (event.login ? "login" : "logout") + " for user " + event.userId
+                        + ": " + e.getMostSpecificCause().getMessage());
+                return true;
+            }
+            int half = batch.size() / 2;
+            if (!writeBatch(batch.subList(0, half))) {
+                unwritten.addAll(batch.subList(half, batch.size()));
+                return false;
+            }
+            return writeBatch(batch.subList(half, batch.size()));
+        } catch (Exception e) {
+            System.err.println("Failed to write " + batch.size() + " login session events, will retry: "
+                    + e.getMessage());
+            unwritten.addAll(batch);
+            return false;
+        }
+    }
 
-        Optional<LoginSession> activeSession = loginSessionRepository.findByUserAndLogoutTimeIsNull(user);
+    // Coalesces each user's events in arrival order: the user's previously open session is closed once,
+    // at their first event, and sessions opened and closed within the batch are inserted already closed
+    private void write(List<SessionEvent> batch) {
+        Map<Long, LocalDateTime> closeOpenAt = new LinkedHashMap<>();
+        Map<Long, PendingSession> openByUser = new LinkedHashMap<>();
+        List<PendingSession> inserts = new ArrayList<>();
+        for (SessionEvent event : batch) {
+            closeOpenAt.putIfAbsent(event.userId, event.at);
+            PendingSession open = openByUser.remove(event.userId);
+            if (open != null) {
+                open.logoutTime = event.at;
+            }
+            if (event.login) {
+                PendingSession session = new PendingSession(event);
+                inserts.add(session);
+                openByUser.put(event.userId, session);
+            }
+        }
 
-        if (activeSession.isPresent()) {
-            LoginSession session = activeSession.get();
-            session.setLogoutTime(LocalDateTime.now());
-            return loginSessionRepository.save(session);
+        // Rollup days this batch changes: the day each new session started and the start day of each
+        // session about to be closed
+        Map<Long, Set<LocalDate>> dirtyDays = new HashMap<>();
+        for (Object[] open : loginSessionRepository.findOpenSessionStarts(closeOpenAt.keySet())) {
+            dirtyDays.computeIfAbsent((Long) open[0], id -> new HashSet<>())
+                    .add(((LocalDateTime) open[1]).toLocalDate());
+        }
+        for (PendingSession session : inserts) {
+            dirtyDays.computeIfAbsent(session.event.userId, id -> new HashSet<>()).add(session.event.at.toLocalDate());
         }
 
-        return null;
+        jdbcTemplate.batchUpdate(
+                "UPDATE login_sessions SET logout_time = ? WHERE user_id = ? AND logout_time IS NULL",
+                new ArrayList<>(closeOpenAt.entrySet()), batchSize, (ps, close) -> {
+                    ps.setTimestamp(1, Timestamp.valueOf(close.getValue()));
+                    ps.setLong(2, close.getKey());
+                });
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO login_sessions (user_id, login_time, logout_time, ip_address, user_agent) "
+                        + "VALUES (?, ?, ?, ?, ?)",
+                inserts, batchSize, (ps, session) -> {
+                    ps.setLong(1, session.event.userId);
+                    ps.setTimestamp(2, Timestamp.valueOf(session.event.at));
+                    ps.setObject(3, session.logoutTime != null ? Timestamp.valueOf(session.logoutTime) : null,
+                            Types.TIMESTAMP);
+                    ps.setString(4, session.event.ipAddress);
+                    ps.setString(5, session.event.userAgent);
+                });
+
+        loginRollupService.refresh(dirtyDays);
     }
 
-    public List<LoginSession> getUserSessions(Long userId) {
-        return loginSessionRepository.findByUser_UserId(userId);
+    // Most recent raw sessions only; totals and per-day activity come from LoginRollupService
+    public List<LoginSession> getUserSessions(Long userId, int limit) {
+        return loginSessionRepository.findByUser_UserIdOrderByLoginTimeDesc(userId,
+                PageRequest.of(0, Math.max(1, Math.min(limit, MAX_SESSION_PAGE_SIZE))));
     }
 
     public LoginSession getActiveSession(Long userId) {
@@ -67,4 +210,29 @@ public class LoginSessionService {
 
         return loginSessionRepository.findByUserAndLogoutTimeIsNull(user).orElse(null);
     }
+
+    private static class SessionEvent {
+        private final Long userId;
+        private final LocalDateTime at;
+        private final boolean login;
+        private final String ipAddress;
+        private final String userAgent;
+
+        SessionEvent(Long userId, LocalDateTime at, boolean login, String ipAddress, String userAgent) {
+            this.userId = userId;
+            this.at = at;
+            this.login = login;
+            this.ipAddress = ipAddress;
+            this.userAgent = userAgent;
+        }
+    }
+
+    private static class PendingSession {
+        private final SessionEvent event;
+        private LocalDateTime logoutTime;
+
+        PendingSession(SessionEvent event) {
+            this.event = event;
+        }
+    }
 }
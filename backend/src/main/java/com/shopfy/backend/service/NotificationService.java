@@ -2,11 +2,16 @@ package com.shopfy.backend.service;
 
 import com.shopfy.backend.entity.Notification;
 import com.shopfy.backend.entity.Order;
+import com.shopfy.backend.entity.Role;
 import com.shopfy.backend.entity.User;
 import com.shopfy.backend.repository.NotificationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
 @Service
@@ -18,6 +23,12 @@ public class NotificationService {
     @Autowired
     private OtpService otpService;
 
+    @Autowired
+    private OwnerDigestService ownerDigestService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private static final String RESET = "\u001B[0m";
     private static final String BLUE = "\u001B[34m";
     private static final String GREEN = "\u001B[32m";
@@ -32,8 +43,12 @@ public class NotificationService {
         notificationRepository.save(notification);
 
         // Notify Store Owner too
+        User owner = order.getStore().getOwner();
+        boolean ownerEmails = owner.getEmailNotificationsEnabled() != null && owner.getEmailNotificationsEnabled();
+        boolean ownerDigest = ownerEmails && Boolean.TRUE.equals(owner.getEmailDigestEnabled());
+
         Notification storeNotif = new Notification();
-        storeNotif.setRecipient(order.getStore().getOwner());
+        storeNotif.setRecipient(owner);
 
         String productNames = order.getItems().stream()
                 .map(item -> item.getProduct().getProductName())
@@ -42,6 +57,9 @@ public class NotificationService {
 
         storeNotif.setMessage("New Order Alert! " + productNames + ", please accept");
         storeNotif.setRelatedOrderId(order.getOrderId());
+        if (ownerDigest) {
+            storeNotif.setEmailPending(true);
+        }
         notificationRepository.save(storeNotif);
 
         // Send emails if enabled
@@ -54,10 +72,12 @@ public class NotificationService {
                 System.out.println("Failed to send email: " + e.getMessage());
             }
         }
-        if (order.getStore().getOwner().getEmailNotificationsEnabled() != null
-                && order.getStore().getOwner().getEmailNotificationsEnabled()) {
+        if (ownerDigest) {
+            // Sent later as part of the owner's digest email, once the order is committed
+            AfterCommit.run("owner digest", () -> ownerDigestService.enqueue(owner, storeNotif));
+        } else if (ownerEmails) {
             try {
-                otpService.sendEmail(order.getStore().getOwner().getEmail(), "New Order Alert - DUKANAM",
+                otpService.sendEmail(owner.getEmail(), "New Order Alert - DUKANAM",
                         "You have received a new order!\n\nOrder ID: #" + order.getOrderId() + "\nProducts: "
                                 + productNames
                                 + "\n\nPlease review and accept the order.");
@@ -106,15 +126,27 @@ public class NotificationService {
         System.out.println(GREEN + "\n[NOTIFICATION SAVED] Support Reply for " + user.getEmail() + RESET);
     }
 
-    public void sendProfileUpdateRequestNotification(User admin, User requester, Long requestId, String fieldName) {
-        Notification notification = new Notification();
-        notification.setRecipient(admin);
-        notification.setMessage("Profile update request from " + requester.getFirstName() + " "
-                + requester.getLastName() + " for " + fieldName);
-        notification.setRelatedProfileRequestId(requestId);
-        notificationRepository.save(notification);
+    public void sendProfileUpdateRequestNotification(User requester, Long requestId, String fieldName) {
+        int count = notifyRole(Role.ADMIN, "Profile update request from " + requester.getFirstName() + " "
+                + requester.getLastName() + " for " + fieldName, null, requestId);
+
+        System.out.println(GREEN + "\n[NOTIFICATION SAVED] Profile Update Request for " + count + " admins" + RESET);
+    }
 
-        System.out.println(GREEN + "\n[NOTIFICATION SAVED] Profile Update Request for admin" + RESET);
+    // Fan-out: one INSERT ... SELECT for every user with the role, no per-recipient round trips
+    public int notifyRole(Role role, String message, Long relatedOrderId, Long relatedProfileRequestId) {
+        return jdbcTemplate.update(
+                "INSERT INTO notifications (recipient_id, message, is_read, related_order_id, "
+                        + "related_profile_request_id, created_at) "
+                        + "SELECT u.user_id, ?, ?, ?, ?, ? FROM users u WHERE u.role = ?",
+                ps -> {
+                    ps.setString(1, message);
+                    ps.setBoolean(2, false);
+                    ps.setObject(3, relatedOrderId, Types.BIGINT);
+                    ps.setObject(4, relatedProfileRequestId, Types.BIGINT);
+                    ps.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now()));
+                    ps.setString(6, role.name());
+                });
     }
 
     public void sendProfileUpdateResponseNotification(User user, String fieldName, boolean approved) {
@@ -93,16 +93,13 @@ public class OrderService {
         return savedOrder.getOrderId();
     }
 
+    // Ids come from the caller's token, so the orders are queried by foreign key without loading the owner first
     public List<Order> getCustomerOrders(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        return orderRepository.findByCustomer(user);
+        return orderRepository.findByCustomerUserId(userId);
     }
 
     public List<Order> getStoreOrders(Long storeId) {
-        Store store = storeRepository.findById(storeId)
-                .orElseThrow(() -> new RuntimeException("Store not found"));
-        return orderRepository.findByStore(store);
+        return orderRepository.findByStoreStoreId(storeId);
     }
 
     public void updateStatus(Long orderId, String status) {
@@ -1,31 +1,64 @@
 package com.shopfy.backend.service;
 
-import com.shopfy.backend.entity.OtpVerification;
-import com.shopfy.backend.repository.OtpVerificationRepository;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-import java.util.Optional;
-import java.util.Random;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
 
 @Service
 public class OtpService {
 
+    private static final int MIN_SECRET_LENGTH = 32;
+
     @Autowired
-    private OtpVerificationRepository otpRepository;
+    private OtpStore otpStore;
+
+    @Value("${otp.hash-secret:}")
+    private String hashSecret;
+
+    @Value("${otp.store:memory}")
+    private String storeType;
+
+    @Value("${otp.ttl-ms:300000}")
+    private long ttlMillis;
+
+    @Value("${otp.max-attempts:5}")
+    private int maxAttempts;
+
+    private final SecureRandom random = new SecureRandom();
+    private SecretKeySpec hashKey;
+
+    // Codes in the memory store never outlive this process, so without a configured secret a random one is
+    // used. The database store shares codes between nodes and restarts, which needs the same secret everywhere.
+    @PostConstruct
+    public void init() {
+        byte[] secret;
+        if (hashSecret == null || hashSecret.isBlank()) {
+            if ("database".equals(storeType)) {
+                throw new IllegalStateException("otp.hash-secret is not set; set OTP_HASH_SECRET when otp.store=database");
+            }
+            secret = new byte[32];
+            random.nextBytes(secret);
+        } else if (hashSecret.length() < MIN_SECRET_LENGTH) {
+            throw new IllegalStateException("otp.hash-secret must be at least " + MIN_SECRET_LENGTH + " characters");
+        } else {
+            secret = hashSecret.getBytes(StandardCharsets.UTF_8);
+        }
+        hashKey = new SecretKeySpec(secret, "HmacSHA256");
+    }
 
     @Autowired
     private org.springframework.mail.javamail.JavaMailSender mailSender;
 
     public void generateAndSendOtp(String contactInfo) {
-        String otp = String.format("%04d", new Random().nextInt(10000));
-
-        OtpVerification verification = new OtpVerification();
-        verification.setContactInfo(contactInfo);
-        verification.setOtpCode(otp);
-        verification.setExpiryTime(LocalDateTime.now().plusMinutes(5));
-        otpRepository.save(verification);
+        String otp = String.format("%04d", random.nextInt(10000));
+        otpStore.put(contactInfo, hash(contactInfo, otp), ttlMillis);
 
         // Send Real OTP if email
         if (contactInfo.contains("@")) {
@@ -51,30 +84,43 @@ public class OtpService {
     }
 
     public boolean verifyOtp(String contactInfo, String otp) {
-        Optional<OtpVerification> verificationOpt = otpRepository.findByContactInfoAndOtpCode(contactInfo, otp);
-        if (verificationOpt.isPresent()) {
-            OtpVerification verification = verificationOpt.get();
-            if (!verification.isUsed() && verification.getExpiryTime().isAfter(LocalDateTime.now())) {
-                verification.setUsed(true);
-                otpRepository.save(verification);
-                return true;
-            }
+        if (contactInfo == null || otp == null) {
+            return false;
+        }
+        return otpStore.verify(contactInfo, hash(contactInfo, otp), maxAttempts);
+    }
+
+    // Keyed hash bound to the contact, so a leaked store does not reveal codes and a code can't be replayed
+    // for another contact
+    private byte[] hash(String contactInfo, String otp) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(hashKey);
+            mac.update(contactInfo.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return mac.doFinal(otp.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("OTP hashing unavailable", e);
         }
-        return false;
     }
 
     // Public method for sending general emails (notifications, etc.)
     public void sendEmail(String email, String subject, String text) {
         try {
-            org.springframework.mail.SimpleMailMessage message = new org.springframework.mail.SimpleMailMessage();
-            message.setTo(email);
-            message.setSubject(subject);
-            message.setText(text);
-            mailSender.send(message);
-            System.out.println("Email sent to " + email);
+            deliverEmail(email, subject, text);
         } catch (Exception e) {
             e.printStackTrace();
             System.out.println("Failed to send email: " + e.getMessage());
         }
     }
+
+    // Like sendEmail, but a failed send throws (MailException) so the caller can keep the message for a retry
+    public void deliverEmail(String email, String subject, String text) {
+        org.springframework.mail.SimpleMailMessage message = new org.springframework.mail.SimpleMailMessage();
+        message.setTo(email);
+        message.setSubject(subject);
+        message.setText(text);
+        mailSender.send(message);
+        System.out.println("Email sent to " + email);
+    }
 }
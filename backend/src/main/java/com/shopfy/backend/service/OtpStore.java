@@ -0,0 +1,12 @@
+package com.shopfy.backend.service;
+
+// Where pending OTPs live between send-otp and verification. Only a hash of each code is stored.
+// otp.store=memory (default) keeps them in this node's heap; otp.store=database shares them between nodes.
+public interface OtpStore {
+
+    // Replaces any code still pending for the contact
+    void put(String contactInfo, byte[] codeHash, long ttlMillis);
+
+    // A match consumes the code. Each call counts as an attempt; once maxAttempts is used up the code is dead.
+    boolean verify(String contactInfo, byte[] codeHash, int maxAttempts);
+}
@@ -0,0 +1,122 @@
+package com.shopfy.backend.service;
+
+import com.shopfy.backend.entity.Notification;
+import com.shopfy.backend.entity.User;
+import com.shopfy.backend.repository.NotificationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Batches new order alerts for store owners who opted into email digests: one summary
+// email per owner per window. Notification.emailPending is the durable copy of the queue.
+@Service
+public class OwnerDigestService {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private OtpService otpService;
+
+    @Value("${notifications.owner-digest.window-ms:900000}")
+    private long windowMs;
+
+    private final Map<Long, PendingDigest> pending = new ConcurrentHashMap<>();
+
+    private static final String RESET = "\u001B[0m";
+    private static final String GREEN = "\u001B[32m";
+
+    public void enqueue(User owner, Notification alert) {
+        pending.compute(owner.getUserId(), (ownerId, digest) -> {
+            if (digest == null) {
+                digest = new PendingDigest(owner.getEmail());
+            }
+            digest.add(alert);
+            return digest;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reloadPending() {
+        List<Notification> alerts = notificationRepository.findPendingDigestAlerts();
+        for (Notification alert : alerts) {
+            enqueue(alert.getRecipient(), alert);
+        }
+        if (!alerts.isEmpty()) {
+            System.out.println("Restored " + alerts.size() + " pending owner digest alerts");
+        }
+    }
+
+    // Alerts are cleared in the DB only after the email went out; a failed send puts the digest back in the
+    // queue for the next window (and emailPending still covers it across a restart)
+    @Scheduled(fixedDelayString = "${notifications.owner-digest.window-ms:900000}",
+            initialDelayString = "${notifications.owner-digest.window-ms:900000}")
+    public void flush() {
+        for (Long ownerId : new ArrayList<>(pending.keySet())) {
+            PendingDigest digest = pending.remove(ownerId);
+            if (digest == null) {
+                continue;
+            }
+
+            // Only alerts still flagged in the DB are sent (skips orders whose transaction rolled back)
+            digest.lines.keySet().retainAll(new HashSet<>(
+                    notificationRepository.findEmailPendingIds(digest.lines.keySet())));
+            if (digest.lines.isEmpty()) {
+                continue;
+            }
+
+            try {
+                otpService.deliverEmail(digest.email, "New Orders Summary - DUKANAM", digest.toEmailBody(windowMs));
+            } catch (Exception e) {
+                System.err.println("Failed to send order digest to " + digest.email + ", retrying next window: "
+                        + e.getMessage());
+                pending.merge(ownerId, digest, PendingDigest::merge);
+                continue;
+            }
+            notificationRepository.clearEmailPending(digest.lines.keySet());
+            System.out.println(GREEN + "\n[DIGEST SENT] " + digest.lines.size() + " order alerts for "
+                    + digest.email + RESET);
+        }
+    }
+
+    private static class PendingDigest {
+        private final String email;
+        // Notification id to its digest line, in arrival order
+        private final Map<Long, String> lines = new LinkedHashMap<>();
+
+        PendingDigest(String email) {
+            this.email = email;
+        }
+
+        void add(Notification alert) {
+            lines.put(alert.getId(), "Order #" + alert.getRelatedOrderId() + " - " + alert.getMessage());
+        }
+
+        // A digest whose send failed, followed by the alerts queued since
+        PendingDigest merge(PendingDigest newer) {
+            lines.putAll(newer.lines);
+            return this;
+        }
+
+        String toEmailBody(long windowMs) {
+            StringBuilder body = new StringBuilder("You have received ").append(lines.size())
+                    .append(lines.size() == 1 ? " new order" : " new orders")
+                    .append(" in the last ").append(Math.max(1, windowMs / 60000)).append(" minutes:\n\n");
+            for (String line : lines.values()) {
+                body.append("- ").append(line).append("\n");
+            }
+            body.append("\nPlease review and accept the orders.");
+            return body.toString();
+        }
+    }
+}
@@ -2,7 +2,6 @@ package com.shopfy.backend.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.shopfy.backend.entity.ProfileUpdateRequest;
-import com.shopfy.backend.entity.Role;
 import com.shopfy.backend.entity.User;
 import com.shopfy.backend.repository.ProfileUpdateRequestRepository;
 import com.shopfy.backend.repository.UserRepository;
@@ -41,12 +40,8 @@ public class ProfileUpdateService {
         ProfileUpdateRequest savedRequest = requestRepository.save(request);
 
         // Send notification to all admins
-        List<User> admins = userRepository.findByRole(Role.ADMIN);
         String fieldName = String.join(", ", changes.keySet());
-        for (User admin : admins) {
-            notificationService.sendProfileUpdateRequestNotification(admin, user, savedRequest.getRequestId(),
-                    fieldName);
-        }
+        notificationService.sendProfileUpdateRequestNotification(user, savedRequest.getRequestId(), fieldName);
 
         return savedRequest;
     }
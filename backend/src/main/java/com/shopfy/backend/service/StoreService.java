@@ -33,12 +33,13 @@ public class StoreService {
             throw new RuntimeException("Owner already has a store");
         }
 
-        String logoUrl = null;
+        String logoUrl;
         if (logo != null && !logo.isEmpty()) {
             logoUrl = fileStorageService.saveFile(logo);
         } else {
             // Fallback if URL provided in text (though standard flow is upload now)
             logoUrl = request.getStoreLogoUrl();
+            fileStorageService.retain(logoUrl);
         }
 
         Store store = new Store();
@@ -50,7 +51,12 @@ public class StoreService {
         store.setLatitude(request.getLatitude());
         store.setLongitude(request.getLongitude());
 
-        return storeRepository.save(store);
+        try {
+            return storeRepository.save(store);
+        } catch (RuntimeException e) {
+            fileStorageService.release(logoUrl);
+            throw e;
+        }
     }
 
     public Store getStoreByOwner(Long ownerId) {
@@ -162,12 +168,23 @@ public class StoreService {
         if (request.getLongitude() != null)
             store.setLongitude(request.getLongitude());
 
+        String logoUrl = null;
+        String replacedLogoUrl = null;
         if (logo != null && !logo.isEmpty()) {
-            String logoUrl = fileStorageService.saveFile(logo);
+            logoUrl = fileStorageService.saveFile(logo);
+            replacedLogoUrl = store.getStoreLogoUrl();
             store.setStoreLogoUrl(logoUrl);
         }
 
-        return storeRepository.save(store);
+        Store saved;
+        try {
+            saved = storeRepository.save(store);
+        } catch (RuntimeException e) {
+            fileStorageService.release(logoUrl);
+            throw e;
+        }
+        fileStorageService.release(replacedLogoUrl);
+        return saved;
     }
 
     // --- Product Management ---
@@ -192,17 +209,18 @@ public class StoreService {
             product.setQuantityInStock(0);
 
         // Handle Images
+        List<String> urls = List.of();
         if (images != null && !images.isEmpty()) {
-            List<String> urls = new java.util.ArrayList<>();
-            for (org.springframework.web.multipart.MultipartFile img : images) {
-                if (!img.isEmpty()) {
-                    urls.add(fileStorageService.saveFile(img));
-                }
-            }
+            urls = saveImages(images);
             product.setImageUrls(urls);
         }
 
-        return productRepository.save(product);
+        try {
+            return productRepository.save(product);
+        } catch (RuntimeException e) {
+            urls.forEach(fileStorageService::release);
+            throw e;
+        }
     }
 
     public List<Product> getProducts(Long storeId) {
@@ -246,20 +264,47 @@ public class StoreService {
         }
 
         // Handle Images (Replace strategy for simple edit)
+        List<String> urls = List.of();
+        List<String> replacedUrls = List.of();
         if (images != null && !images.isEmpty()) {
-            List<String> urls = new java.util.ArrayList<>();
+            urls = saveImages(images);
+            replacedUrls = List.copyOf(product.getImageUrls());
+            product.setImageUrls(urls);
+        }
+
+        Product saved;
+        try {
+            saved = productRepository.save(product);
+        } catch (RuntimeException e) {
+            urls.forEach(fileStorageService::release);
+            throw e;
+        }
+        // Each saveFile took its own reference, so re-uploading an unchanged photo keeps its file
+        replacedUrls.forEach(fileStorageService::release);
+        return saved;
+    }
+
+    // Each saveFile takes a reference; if a later image is rejected, the ones already stored are dropped again
+    private List<String> saveImages(List<org.springframework.web.multipart.MultipartFile> images) {
+        List<String> urls = new java.util.ArrayList<>();
+        try {
             for (org.springframework.web.multipart.MultipartFile img : images) {
                 if (!img.isEmpty()) {
                     urls.add(fileStorageService.saveFile(img));
                 }
             }
-            product.setImageUrls(urls);
+        } catch (RuntimeException e) {
+            urls.forEach(fileStorageService::release);
+            throw e;
         }
-
-        return productRepository.save(product);
+        return urls;
     }
 
     public void deleteProduct(Long productId) {
+        List<String> imageUrls = productRepository.findById(productId)
+                .map(product -> List.copyOf(product.getImageUrls()))
+                .orElse(List.of());
         productRepository.deleteById(productId);
+        imageUrls.forEach(fileStorageService::release);
     }
 }
@@ -0,0 +1,114 @@
+package com.shopfy.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopfy.backend.entity.SupportMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Live support chat rooms, one per ticket, holding the WebSocket sessions currently viewing it
+@Service
+public class SupportChatService {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${support.chat.room-idle-ms:1800000}")
+    private long roomIdleMs;
+
+    private static final int SEND_TIME_LIMIT_MS = 5000;
+    private static final int SEND_BUFFER_LIMIT = 512 * 1024;
+
+    private final Map<Long, TicketRoom> rooms = new ConcurrentHashMap<>();
+
+    public WebSocketSession join(Long ticketId, WebSocketSession session) {
+        // Decorator serializes concurrent sends to the same session
+        WebSocketSession safeSession = new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT_MS,
+                SEND_BUFFER_LIMIT);
+        rooms.compute(ticketId, (id, room) -> {
+            if (room == null) {
+                room = new TicketRoom();
+            }
+            room.sessions.add(safeSession);
+            room.touch();
+            return room;
+        });
+        return safeSession;
+    }
+
+    public void leave(Long ticketId, WebSocketSession session) {
+        TicketRoom room = rooms.get(ticketId);
+        if (room != null) {
+            room.sessions.remove(session);
+            room.touch();
+        }
+    }
+
+    public void broadcast(Long ticketId, SupportMessage message) {
+        TicketRoom room = rooms.get(ticketId);
+        if (room == null || room.sessions.isEmpty()) {
+            return;
+        }
+        room.touch();
+
+        TextMessage payload;
+        try {
+            payload = new TextMessage(objectMapper.writeValueAsString(message));
+        } catch (IOException e) {
+            System.out.println("Failed to serialize support message: " + e.getMessage());
+            return;
+        }
+
+        for (WebSocketSession session : room.sessions) {
+            try {
+                if (session.isOpen()) {
+                    session.sendMessage(payload);
+                } else {
+                    room.sessions.remove(session);
+                }
+            } catch (Exception e) {
+                room.sessions.remove(session);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void evictIdleRooms() {
+        long cutoff = System.currentTimeMillis() - roomIdleMs;
+        for (Long ticketId : rooms.keySet()) {
+            rooms.computeIfPresent(ticketId, (id, room) -> {
+                room.sessions.removeIf(session -> !session.isOpen());
+                if (room.lastActivity > cutoff) {
+                    return room;
+                }
+                for (WebSocketSession session : room.sessions) {
+                    try {
+                        session.close(CloseStatus.GOING_AWAY);
+                    } catch (IOException e) {
+                        // Already gone
+                    }
+                }
+                return null;
+            });
+        }
+    }
+
+    private static class TicketRoom {
+        private final Set<WebSocketSession> sessions = ConcurrentHashMap.newKeySet();
+        private volatile long lastActivity = System.currentTimeMillis();
+
+        void touch() {
+            lastActivity = System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.shopfy.backend.service;
+
+import com.shopfy.backend.dto.SupportQueueItem;
+import com.shopfy.backend.entity.SupportTicket;
+import com.shopfy.backend.repository.SupportTicketRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+
+// Admin support desk queue: open tickets waiting on support, ordered by SLA deadline then wait time.
+// Claims are time-limited leases so a ticket an admin walks away from goes back into the queue.
+@Service
+public class SupportQueueService {
+
+    @Autowired
+    private SupportTicketRepository ticketRepository;
+
+    @Value("${support.queue.first-response-sla-ms:3600000}")
+    private long firstResponseSlaMs;
+
+    @Value("${support.queue.follow-up-sla-ms:14400000}")
+    private long followUpSlaMs;
+
+    @Value("${support.queue.claim-lease-ms:600000}")
+    private long claimLeaseMs;
+
+    private static final Comparator<QueueEntry> BY_DEADLINE = Comparator
+            .comparing((QueueEntry e) -> e.slaDeadline)
+            .thenComparing(e -> e.waitingSince)
+            .thenComparing(e -> e.ticketId);
+
+    private static final Comparator<QueueEntry> BY_CLAIM_EXPIRY = Comparator
+            .comparing((QueueEntry e) -> e.claimExpiresAt)
+            .thenComparing(e -> e.ticketId);
+
+    // Every queued ticket is in entries and in exactly one of available / claimed
+    private final Map<Long, QueueEntry> entries = new HashMap<>();
+    private final TreeSet<QueueEntry> available = new TreeSet<>(BY_DEADLINE);
+    private final TreeSet<QueueEntry> claimed = new TreeSet<>(BY_CLAIM_EXPIRY);
+
+    public synchronized void ticketOpened(Long ticketId, LocalDateTime openedAt) {
+        if (!entries.containsKey(ticketId)) {
+            add(ticketId, openedAt, true);
+        }
+    }
+
+    // Customer wrote again: starts a follow-up wait unless the ticket is already waiting
+    public synchronized void customerMessage(Long ticketId, LocalDateTime sentAt) {
+        if (!entries.containsKey(ticketId)) {
+            add(ticketId, sentAt, false);
+        }
+    }
+
+    public synchronized void supportReplied(Long ticketId) {
+        QueueEntry entry = entries.remove(ticketId);
+        if (entry != null) {
+            detach(entry);
+        }
+    }
+
+    public synchronized Optional<SupportQueueItem> claimNext(Long adminId) {
+        releaseExpiredClaims();
+        QueueEntry entry = available.pollFirst();
+        if (entry == null) {
+            return Optional.empty();
+        }
+        lease(entry, adminId);
+        return Optional.of(entry.toItem());
+    }
+
+    // Claiming a ticket you already hold renews the lease
+    public synchronized SupportQueueItem claim(Long ticketId, Long adminId) {
+        releaseExpiredClaims();
+        QueueEntry entry = entries.get(ticketId);
+        if (entry == null) {
+            throw new RuntimeException("Ticket is not waiting in the support queue");
+        }
+        if (entry.claimedBy != null && !entry.claimedBy.equals(adminId)) {
+            throw new RuntimeException("Ticket is claimed by another admin");
+        }
+        detach(entry);
+        lease(entry, adminId);
+        return entry.toItem();
+    }
+
+    public synchronized void release(Long ticketId, Long adminId) {
+        QueueEntry entry = entries.get(ticketId);
+        if (entry == null || entry.claimedBy == null) {
+            return;
+        }
+        if (!entry.claimedBy.equals(adminId)) {
+            throw new RuntimeException("Ticket is claimed by another admin");
+        }
+        claimed.remove(entry);
+        entry.claimedBy = null;
+        entry.claimExpiresAt = null;
+        available.add(entry);
+    }
+
+    public synchronized List<SupportQueueItem> peek(int limit) {
+        releaseExpiredClaims();
+        List<SupportQueueItem> items = new ArrayList<>();
+        Iterator<QueueEntry> it = available.iterator();
+        while (it.hasNext() && items.size() < limit) {
+            items.add(it.next().toItem());
+        }
+        return items;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        entries.clear();
+        available.clear();
+        claimed.clear();
+
+        for (Object[] row : ticketRepository.findOpenTicketWaitStates(SupportTicket.TicketStatus.OPEN)) {
+            Long ticketId = (Long) row[0];
+            LocalDateTime createdAt = (LocalDateTime) row[1];
+            Long lastSupportMessageId = (Long) row[2];
+            LocalDateTime waitingSince = (LocalDateTime) row[3];
+
+            if (lastSupportMessageId == null) {
+                add(ticketId, createdAt, true); // never answered
+            } else if (waitingSince != null) {
+                add(ticketId, waitingSince, false); // customer wrote after the last reply
+            }
+        }
+        System.out.println("Support queue rebuilt with " + entries.size() + " waiting tickets");
+    }
+
+    private void add(Long ticketId, LocalDateTime waitingSince, boolean firstResponse) {
+        QueueEntry entry = new QueueEntry();
+        entry.ticketId = ticketId;
+        entry.waitingSince = waitingSince;
+        entry.firstResponse = firstResponse;
+        entry.slaDeadline = waitingSince.plus(Duration.ofMillis(firstResponse ? firstResponseSlaMs : followUpSlaMs));
+        entries.put(ticketId, entry);
+        available.add(entry);
+    }
+
+    // Remove from whichever ordered set holds it (before changing any field the comparator reads)
+    private void detach(QueueEntry entry) {
+        if (entry.claimedBy != null) {
+            claimed.remove(entry);
+        } else {
+            available.remove(entry);
+        }
+    }
+
+    private void lease(QueueEntry entry, Long adminId) {
+        entry.claimedBy = adminId;
+        entry.claimExpiresAt = LocalDateTime.now().plus(Duration.ofMillis(claimLeaseMs));
+        claimed.add(entry);
+    }
+
+    private void releaseExpiredClaims() {
+        LocalDateTime now = LocalDateTime.now();
+        while (!claimed.isEmpty() && !claimed.first().claimExpiresAt.isAfter(now)) {
+            QueueEntry entry = claimed.pollFirst();
+            entry.claimedBy = null;
+            entry.claimExpiresAt = null;
+            available.add(entry);
+        }
+    }
+
+    private static class QueueEntry {
+        private Long ticketId;
+        private LocalDateTime waitingSince;
+        private LocalDateTime slaDeadline;
+        private boolean firstResponse;
+        private Long claimedBy;
+        private LocalDateTime claimExpiresAt;
+
+        SupportQueueItem toItem() {
+            return new SupportQueueItem(ticketId, waitingSince, slaDeadline, firstResponse, claimedBy,
+                    claimExpiresAt);
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.shopfy.backend.service;
+
+import com.shopfy.backend.dto.SupportSearchHit;
+import com.shopfy.backend.repository.SupportMessageRepository;
+import com.shopfy.backend.repository.SupportTicketRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// In-memory full-text index over support ticket subjects and message content.
+// Query syntax: plain words (all must match), "quoted phrases" and prefix* terms.
+@Service
+public class SupportSearchService {
+
+    @Autowired
+    private SupportMessageRepository messageRepository;
+
+    @Autowired
+    private SupportTicketRepository ticketRepository;
+
+    private static final Pattern QUERY_PART = Pattern.compile("\"([^\"]*)\"|(\\S+)");
+    private static final int SNIPPET_CONTEXT = 60;
+    private static final int SNIPPET_LENGTH = 180;
+
+    // term -> (doc key -> token positions); sorted so prefix queries are a range scan
+    private final TreeMap<String, Map<Long, List<Integer>>> postings = new TreeMap<>();
+    // Messages are keyed by messageId, ticket subjects by -ticketId
+    private final Map<Long, IndexedDoc> docs = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            docs.clear();
+            for (Object[] row : ticketRepository.findAllSubjectsForIndex()) {
+                addDoc(-(Long) row[0], (Long) row[0], (String) row[1]);
+            }
+            for (Object[] row : messageRepository.findAllContentForIndex()) {
+                addDoc((Long) row[0], (Long) row[1], (String) row[2]);
+            }
+            System.out.println("Support search index built with " + docs.size() + " documents, "
+                    + postings.size() + " terms");
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void indexSubject(Long ticketId, String subject) {
+        lock.writeLock().lock();
+        try {
+            addDoc(-ticketId, ticketId, subject);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void indexMessage(Long messageId, Long ticketId, String content) {
+        lock.writeLock().lock();
+        try {
+            addDoc(messageId, ticketId, content);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<SupportSearchHit> search(String query, int limit) {
+        List<Clause> clauses = parse(query);
+        if (clauses.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        lock.readLock().lock();
+        try {
+            // Documents matching every clause, with the token spans to highlight
+            Map<Long, List<int[]>> matches = null;
+            for (Clause clause : clauses) {
+                Map<Long, List<int[]>> clauseMatches = match(clause);
+                if (matches == null) {
+                    matches = clauseMatches;
+                } else {
+                    matches.keySet().retainAll(clauseMatches.keySet());
+                    for (Map.Entry<Long, List<int[]>> entry : matches.entrySet()) {
+                        entry.getValue().addAll(clauseMatches.get(entry.getKey()));
+                    }
+                }
+                if (matches.isEmpty()) {
+                    return new ArrayList<>();
+                }
+            }
+
+            // Group by ticket, keeping the document with the most hits (latest wins ties) for the snippet
+            Map<Long, TicketHit> byTicket = new HashMap<>();
+            for (Map.Entry<Long, List<int[]>> entry : matches.entrySet()) {
+                IndexedDoc doc = docs.get(entry.getKey());
+                TicketHit hit = byTicket.computeIfAbsent(doc.ticketId, id -> new TicketHit());
+                hit.matchCount += entry.getValue().size();
+                if (hit.bestDoc == null || entry.getValue().size() > hit.bestSpans.size()
+                        || (entry.getValue().size() == hit.bestSpans.size() && entry.getKey() > hit.bestDocKey)) {
+                    hit.bestDoc = doc;
+                    hit.bestDocKey = entry.getKey();
+                    hit.bestSpans = entry.getValue();
+                }
+            }
+
+            List<Map.Entry<Long, TicketHit>> ranked = new ArrayList<>(byTicket.entrySet());
+            ranked.sort(Comparator.comparing((Map.Entry<Long, TicketHit> e) -> e.getValue().matchCount).reversed()
+                    .thenComparing(Map.Entry::getKey, Comparator.reverseOrder()));
+
+            List<SupportSearchHit> hits = new ArrayList<>();
+            for (Map.Entry<Long, TicketHit> entry : ranked.subList(0, Math.min(limit, ranked.size()))) {
+                IndexedDoc subjectDoc = docs.get(-entry.getKey());
+                TicketHit hit = entry.getValue();
+                hits.add(new SupportSearchHit(entry.getKey(), subjectDoc != null ? subjectDoc.text : null,
+                        snippet(hit.bestDoc, hit.bestSpans), hit.matchCount));
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addDoc(Long docKey, Long ticketId, String text) {
+        if (text == null || text.isBlank() || docs.containsKey(docKey)) {
+            return;
+        }
+        IndexedDoc doc = new IndexedDoc(ticketId, text, tokenize(text));
+        docs.put(docKey, doc);
+        for (int i = 0; i < doc.tokens.size(); i++) {
+            postings.computeIfAbsent(doc.tokens.get(i).term, t -> new HashMap<>())
+                    .computeIfAbsent(docKey, k -> new ArrayList<>())
+                    .add(i);
+        }
+    }
+
+    private Map<Long, List<int[]>> match(Clause clause) {
+        Map<Long, List<int[]>> result = new HashMap<>();
+        String first = clause.terms.get(0);
+        boolean firstIsPrefix = clause.prefix && clause.terms.size() == 1;
+
+        // Candidate occurrences of the first term, then verify the rest of the phrase in place
+        Map<String, Map<Long, List<Integer>>> firstPostings = firstIsPrefix
+                ? postings.subMap(first, true, first + Character.MAX_VALUE, true)
+                : (postings.containsKey(first) ? Map.of(first, postings.get(first)) : Map.of());
+
+        for (Map<Long, List<Integer>> termPostings : firstPostings.values()) {
+            for (Map.Entry<Long, List<Integer>> entry : termPostings.entrySet()) {
+                IndexedDoc doc = docs.get(entry.getKey());
+                for (int position : entry.getValue()) {
+                    if (phraseMatchesAt(doc, position, clause)) {
+                        result.computeIfAbsent(entry.getKey(), k -> new ArrayList<>())
+                                .add(new int[] { position, position + clause.terms.size() - 1 });
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private boolean phraseMatchesAt(IndexedDoc doc, int position, Clause clause) {
+        if (position + clause.terms.size() > doc.tokens.size()) {
+            return false;
+        }
+        for (int i = 1; i < clause.terms.size(); i++) {
+            String expected = clause.terms.get(i);
+            String actual = doc.tokens.get(position + i).term;
+            boolean last = i == clause.terms.size() - 1;
+            if (last && clause.prefix ? !actual.startsWith(expected) : !actual.equals(expected)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<Clause> parse(String query) {
+        List<Clause> clauses = new ArrayList<>();
+        if (query == null) {
+            return clauses;
+        }
+        Matcher matcher = QUERY_PART.matcher(query);
+        while (matcher.find()) {
+            String part = matcher.group(1) != null ? matcher.group(1) : matcher.group(2);
+            boolean prefix = matcher.group(1) == null && part.endsWith("*");
+            List<String> terms = new ArrayList<>();
+            for (Token token : tokenize(part)) {
+                terms.add(token.term);
+            }
+            if (!terms.isEmpty()) {
+                clauses.add(new Clause(terms, prefix));
+            }
+        }
+        return clauses;
+    }
+
+    private static List<Token> tokenize(String text) {
+        List<Token> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(new Token(text.substring(start, i).toLowerCase(Locale.ROOT), start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    // Window of text around the first hit, HTML-escaped, with every hit wrapped in <mark>
+    private String snippet(IndexedDoc doc, List<int[]> spans) {
+        Set<Integer> highlighted = new HashSet<>();
+        int firstChar = Integer.MAX_VALUE;
+        for (int[] span : spans) {
+            for (int i = span[0]; i <= span[1]; i++) {
+                highlighted.add(i);
+            }
+            firstChar = Math.min(firstChar, doc.tokens.get(span[0]).start);
+        }
+
+        int from = Math.max(0, firstChar - SNIPPET_CONTEXT);
+        int to = Math.min(doc.text.length(), from + SNIPPET_LENGTH);
+        StringBuilder out = new StringBuilder(from > 0 ? "..." : "");
+        int cursor = from;
+        for (int i = 0; i < doc.tokens.size(); i++) {
+            Token token = doc.tokens.get(i);
+            if (!highlighted.contains(i) || token.start < from || token.end > to) {
+                continue;
+            }
+            out.append(escape(doc.text.substring(cursor, token.start)))
+                    .append("<mark>").append(escape(doc.text.substring(token.start, token.end))).append("</mark>");
+            cursor = token.end;
+        }
+        out.append(escape(doc.text.substring(cursor, to)));
+        if (to < doc.text.length()) {
+            out.append("...");
+        }
+        return out.toString();
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    private static class Token {
+        private final String term;
+        private final int start;
+        private final int end;
+
+        Token(String term, int start, int end) {
+            this.term = term;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    private static class IndexedDoc {
+        private final Long ticketId;
+        private final String text;
+        private final List<Token> tokens;
+
+        IndexedDoc(Long ticketId, String text, List<Token> tokens) {
+            this.ticketId = ticketId;
+            this.text = text;
+            this.tokens = tokens;
+        }
+    }
+
+    private static class Clause {
+        private final List<String> terms;
+        private final boolean prefix;
+
+        Clause(List<String> terms, boolean prefix) {
+            this.terms = terms;
+            this.prefix = prefix;
+        }
+    }
+
+    private static class TicketHit {
+        private int matchCount;
+        private IndexedDoc bestDoc;
+        private long bestDocKey;
+        private List<int[]> bestSpans;
+    }
+}
@@ -1,5 +1,6 @@
 package com.shopfy.backend.service;
 
+import com.shopfy.backend.dto.SupportTicketSummary;
 import com.shopfy.backend.entity.SupportMessage;
 import com.shopfy.backend.entity.SupportTicket;
 import com.shopfy.backend.entity.User;
@@ -7,9 +8,13 @@ import com.shopfy.backend.repository.SupportMessageRepository;
 import com.shopfy.backend.repository.SupportTicketRepository;
 import com.shopfy.backend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 @Service
@@ -27,6 +32,17 @@ public class SupportService {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private SupportChatService supportChatService;
+
+    @Autowired
+    private SupportQueueService supportQueueService;
+
+    @Autowired
+    private SupportSearchService supportSearchService;
+
+    private static final int MAX_PAGE_SIZE = 200;
+
     public SupportTicket createTicket(Long userId, String subject) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -38,7 +54,10 @@ public class SupportService {
         ticket.setUpdatedAt(LocalDateTime.now());
         ticket.setStatus(SupportTicket.TicketStatus.OPEN);
 
-        return ticketRepository.save(ticket);
+        SupportTicket savedTicket = ticketRepository.save(ticket);
+        supportQueueService.ticketOpened(savedTicket.getTicketId(), savedTicket.getCreatedAt());
+        supportSearchService.indexSubject(savedTicket.getTicketId(), subject);
+        return savedTicket;
     }
 
     public SupportMessage addMessage(Long ticketId, Long senderId, String content) {
@@ -53,12 +72,23 @@ public class SupportService {
         message.setContent(content);
         message.setTimestamp(LocalDateTime.now());
 
-        // Update ticket timestamp
-        ticket.setUpdatedAt(LocalDateTime.now());
-        ticketRepository.save(ticket);
+        // Only the timestamp column: a full save would write back read watermarks that
+        // markReadByOwner/markReadBySupport may have advanced since the ticket was loaded
+        ticketRepository.touch(ticketId, LocalDateTime.now());
 
         SupportMessage savedMessage = messageRepository.save(message);
 
+        // Push to anyone with the ticket open
+        supportChatService.broadcast(ticketId, savedMessage);
+        supportSearchService.indexMessage(savedMessage.getMessageId(), ticketId, content);
+
+        // Keep the admin support queue in sync: customer messages wait on support, replies answer them
+        if (ticket.getUser().getUserId().equals(senderId)) {
+            supportQueueService.customerMessage(ticketId, savedMessage.getTimestamp());
+        } else {
+            supportQueueService.supportReplied(ticketId);
+        }
+
         // If sender is NOT the ticket owner, notify the ticket owner (Customer)
         if (!ticket.getUser().getUserId().equals(senderId)) {
             String preview = content.length() > 30 ? content.substring(0, 27) + "..." : content;
@@ -68,21 +98,20 @@ public class SupportService {
         return savedMessage;
     }
 
-    public List<SupportTicket> getUserTickets(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        List<SupportTicket> tickets = ticketRepository.findByUserOrderByUpdatedAtDesc(user);
-
-        // Populate unread count
-        for (SupportTicket ticket : tickets) {
-            long count = messageRepository.countByTicketAndSenderNotAndIsReadFalse(ticket, user);
-            ticket.setUnreadCount(count);
+    public List<SupportTicketSummary> getUserTickets(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found");
         }
-        return tickets;
+        return ticketRepository.findSummariesByUser(userId);
     }
 
-    public List<SupportTicket> getAllTickets() {
-        return ticketRepository.findAllByOrderByUpdatedAtDesc();
+    // Admin queue page; pass the updatedAt/ticketId of the last row seen to get the next page
+    public List<SupportTicketSummary> getAllTickets(LocalDateTime beforeUpdatedAt, Long beforeTicketId, int limit) {
+        Pageable page = PageRequest.of(0, Math.min(Math.max(limit, 1), MAX_PAGE_SIZE));
+        if (beforeUpdatedAt == null || beforeTicketId == null) {
+            return ticketRepository.findAdminSummaries(page);
+        }
+        return ticketRepository.findAdminSummariesBefore(beforeUpdatedAt, beforeTicketId, page);
     }
 
     public List<SupportMessage> getTicketMessages(Long ticketId) {
@@ -91,16 +120,39 @@ public class SupportService {
         return messageRepository.findByTicketOrderByTimestampAsc(ticket);
     }
 
-    public void markTicketAsRead(Long ticketId, Long userId) {
-        SupportTicket ticket = ticketRepository.findById(ticketId)
-                .orElseThrow(() -> new RuntimeException("Ticket not found"));
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    // One page of history in chronological order: before a message id (older), after one (newer), or the latest
+    public List<SupportMessage> getTicketMessages(Long ticketId, Long beforeId, Long afterId, int limit) {
+        if (!ticketExists(ticketId)) {
+            throw new RuntimeException("Ticket not found");
+        }
+        Pageable page = PageRequest.of(0, Math.min(Math.max(limit, 1), MAX_PAGE_SIZE));
+
+        if (afterId != null) {
+            return messageRepository.findByTicketTicketIdAndMessageIdGreaterThanOrderByMessageIdAsc(ticketId,
+                    afterId, page);
+        }
+
+        List<SupportMessage> newestFirst = beforeId != null
+                ? messageRepository.findByTicketTicketIdAndMessageIdLessThanOrderByMessageIdDesc(ticketId, beforeId,
+                        page)
+                : messageRepository.findByTicketTicketIdOrderByMessageIdDesc(ticketId, page);
+        List<SupportMessage> messages = new ArrayList<>(newestFirst);
+        Collections.reverse(messages);
+        return messages;
+    }
 
-        List<SupportMessage> unreadMessages = messageRepository.findByTicketAndSenderNotAndIsReadFalse(ticket, user);
-        for (SupportMessage msg : unreadMessages) {
-            msg.setRead(true);
-            messageRepository.save(msg);
+    public boolean ticketExists(Long ticketId) {
+        return ticketRepository.existsById(ticketId);
+    }
+
+    public void markTicketAsRead(Long ticketId, Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found");
+        }
+        // The ticket owner reads as the customer; anyone else reads as support
+        if (ticketRepository.markReadByOwner(ticketId, userId) == 0
+                && ticketRepository.markReadBySupport(ticketId, userId) == 0) {
+            throw new RuntimeException("Ticket not found");
         }
     }
 }
@@ -0,0 +1,40 @@
+package com.shopfy.backend.service;
+
+import com.shopfy.backend.entity.Role;
+import com.shopfy.backend.entity.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+// JPA lifecycle listener on User that keeps UserSearchService's prefix index in sync with committed writes
+@Component
+public class UserSearchListener {
+
+    // Lazy for the same reason as DashboardStatsListener: the service's repositories need the
+    // EntityManagerFactory that creates this listener
+    @Autowired
+    @Lazy
+    private UserSearchService userSearchService;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(User user) {
+        Long userId = user.getUserId();
+        String firstName = user.getFirstName();
+        String lastName = user.getLastName();
+        String email = user.getEmail();
+        String mobileNumber = user.getMobileNumber();
+        Role role = user.getRole();
+        AfterCommit.run("user search index",
+                () -> userSearchService.index(userId, firstName, lastName, email, mobileNumber, role));
+    }
+
+    @PostRemove
+    public void onRemove(User user) {
+        Long userId = user.getUserId();
+        AfterCommit.run("user search index", () -> userSearchService.remove(userId));
+    }
+}
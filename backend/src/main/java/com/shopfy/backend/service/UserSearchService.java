@@ -0,0 +1,243 @@
+package com.shopfy.backend.service;
+
+import com.shopfy.backend.entity.Role;
+import com.shopfy.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory prefix index over user email, mobile number, first name and last name for admin lookup.
+// Built at startup and kept current by UserSearchListener. Every word of a query must prefix-match
+// one of the user's terms, e.g. "jo sm" finds John Smith and "98765" finds a mobile number.
+@Service
+public class UserSearchService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private static final int LOAD_BATCH_SIZE = 10000;
+    // Upper bound on postings examined per query, so very short prefixes stay fast on large user bases
+    private static final int MAX_SCAN = 50000;
+    private static final int MAX_RESULTS = 100;
+
+    // term -> ids of users having it; sorted so a prefix lookup is a range scan
+    private final TreeMap<String, Postings> postings = new TreeMap<>();
+    private final Map<Long, IndexedUser> users = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            users.clear();
+            long afterId = 0;
+            List<Object[]> batch;
+            do {
+                batch = userRepository.findSearchFieldsAfter(afterId, PageRequest.of(0, LOAD_BATCH_SIZE));
+                for (Object[] row : batch) {
+                    afterId = (Long) row[0];
+                    add(new IndexedUser(afterId, (String) row[1], (String) row[2], (String) row[3], (String) row[4],
+                            (Role) row[5]));
+                }
+            } while (batch.size() == LOAD_BATCH_SIZE);
+            System.out.println("User search index built with " + users.size() + " users, " + postings.size()
+                    + " terms");
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(Long userId, String firstName, String lastName, String email, String mobileNumber, Role role) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(userId);
+            add(new IndexedUser(userId, firstName, lastName, email, mobileNumber, role));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long userId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Matching user ids in term order; role may be null to search CUSTOMER and STORE_OWNER together
+    public List<Long> search(String query, Role role, int limit) {
+        List<String> tokens = queryTokens(query);
+        if (tokens.isEmpty()) {
+            return new ArrayList<>();
+        }
+        int max = Math.max(1, Math.min(limit, MAX_RESULTS));
+
+        // Drive the scan with the longest (most selective) word and check the rest per candidate
+        String driver = tokens.get(0);
+        for (String token : tokens) {
+            if (token.length() > driver.length()) {
+                driver = token;
+            }
+        }
+
+        lock.readLock().lock();
+        try {
+            Set<Long> matches = new LinkedHashSet<>();
+            int scanned = 0;
+            for (Postings ids : postings.subMap(driver, true, driver + Character.MAX_VALUE, true).values()) {
+                for (int i = 0; i < ids.size; i++) {
+                    long id = ids.ids[i];
+                    if (++scanned > MAX_SCAN) {
+                        return new ArrayList<>(matches);
+                    }
+                    IndexedUser user = users.get(id);
+                    if (!matches.contains(id) && user != null && accepts(user, role) && user.matchesAll(tokens)) {
+                        matches.add(id);
+                        if (matches.size() == max) {
+                            return new ArrayList<>(matches);
+                        }
+                    }
+                }
+            }
+            return new ArrayList<>(matches);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean accepts(IndexedUser user, Role role) {
+        return role != null ? user.role == role : user.role != Role.ADMIN;
+    }
+
+    private void add(IndexedUser user) {
+        users.put(user.userId, user);
+        for (String term : user.terms) {
+            postings.computeIfAbsent(term, t -> new Postings()).add(user.userId);
+        }
+    }
+
+    private void removeLocked(Long userId) {
+        IndexedUser previous = users.remove(userId);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.terms) {
+            Postings ids = postings.get(term);
+            if (ids != null && ids.remove(userId) && ids.size == 0) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    private static List<String> queryTokens(String query) {
+        List<String> tokens = new ArrayList<>();
+        if (query == null) {
+            return tokens;
+        }
+        for (String word : query.trim().toLowerCase(Locale.ROOT).split("\\s+")) {
+            // "+91-98765" style input is matched against the digits of the mobile number
+            String digits = word.replaceAll("[+\\-()]", "");
+            String token = !digits.isEmpty() && digits.chars().allMatch(Character::isDigit) ? digits : word;
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    // Growable sorted id list. The startup load reads users in id order, so it only ever appends; later
+    // inserts and removals binary search and shift the tail in place.
+    private static class Postings {
+        private long[] ids = new long[1];
+        private int size;
+
+        void add(long id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0) {
+                return;
+            }
+            at = -at - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            ids[at] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+            return true;
+        }
+    }
+
+    private static class IndexedUser {
+        private final long userId;
+        private final Role role;
+        private final List<String> terms = new ArrayList<>();
+
+        IndexedUser(long userId, String firstName, String lastName, String email, String mobileNumber, Role role) {
+            this.userId = userId;
+            this.role = role;
+            addWords(firstName);
+            addWords(lastName);
+            if (email != null && !email.isBlank()) {
+                terms.add(email.trim().toLowerCase(Locale.ROOT));
+            }
+            if (mobileNumber != null) {
+                String digits = mobileNumber.replaceAll("\\D", "");
+                if (!digits.isEmpty()) {
+                    terms.add(digits);
+                }
+            }
+        }
+
+        private void addWords(String text) {
+            if (text == null) {
+                return;
+            }
+            for (String word : text.trim().toLowerCase(Locale.ROOT).split("\\s+")) {
+                if (!word.isEmpty() && !terms.contains(word)) {
+                    terms.add(word);
+                }
+            }
+        }
+
+        boolean matchesAll(List<String> tokens) {
+            for (String token : tokens) {
+                boolean found = false;
+                for (String term : terms) {
+                    if (term.startsWith(token)) {
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
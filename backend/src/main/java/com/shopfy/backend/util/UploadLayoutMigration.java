@@ -0,0 +1,189 @@
+package com.shopfy.backend.util;
+
+import com.shopfy.backend.service.FileStorageService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Offline move from the flat uploads/ directory to the sharded ab/cd/<name> layout. Run it with the app
+// stopped, then exit:
+//   java -jar app.jar --uploads.layout-migration.enabled=true --spring.main.web-application-type=none
+// Files are moved first and URLs rewritten after, and the app resolves flat and sharded URLs alike, so an
+// interrupted run leaves nothing broken and can simply be started again.
+@Component
+@ConditionalOnProperty(name = "uploads.layout-migration.enabled", havingValue = "true")
+public class UploadLayoutMigration implements CommandLineRunner {
+
+    private static final String IMAGE_URL_PREFIX = "/uploads/";
+    private static final String CONTENT_URL_PREFIX = "/api/content/files/";
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Value("${uploads.layout-migration.threads:8}")
+    private int threads;
+
+    @Value("${uploads.layout-migration.batch-size:500}")
+    private int batchSize;
+
+    private final AtomicLong moved = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    @Override
+    public void run(String... args) throws Exception {
+        long started = System.currentTimeMillis();
+        System.out.println("Migrating uploads in " + fileStorageService.getRoot() + " to the sharded layout...");
+
+        moveFiles();
+        System.out.println("Files: " + moved.get() + " moved, " + duplicates.get() + " already in place, "
+                + failed.get() + " failed");
+
+        int images = rewriteProductImages();
+        int logos = rewriteById("SELECT store_id, store_logo_url FROM stores WHERE store_id > ? "
+                + "AND store_logo_url LIKE '/uploads/%' ORDER BY store_id",
+                "UPDATE stores SET store_logo_url = ? WHERE store_id = ?", IMAGE_URL_PREFIX);
+        int content = rewriteById("SELECT id, url FROM dashboard_content WHERE id > ? "
+                + "AND url LIKE '/api/content/files/%' ORDER BY id",
+                "UPDATE dashboard_content SET url = ? WHERE id = ?", CONTENT_URL_PREFIX);
+        System.out.println("URLs rewritten: " + images + " product image URLs, " + logos + " store logos, "
+                + content + " dashboard content");
+        System.out.println("Upload migration finished in " + (System.currentTimeMillis() - started) + " ms");
+
+        int exitCode = failed.get() == 0 ? 0 : 1;
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+
+    // Renames within one filesystem, so each move is cheap; the pool overlaps the directory metadata I/O.
+    // The bounded queue with caller-runs keeps the listing from running far ahead of the movers.
+    private void moveFiles() throws IOException, InterruptedException {
+        Path root = fileStorageService.getRoot();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 64), new ThreadPoolExecutor.CallerRunsPolicy());
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(root, Files::isRegularFile)) {
+            for (Path file : files) {
+                executor.execute(() -> moveFile(root, file));
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.DAYS);
+        }
+    }
+
+    private void moveFile(Path root, Path file) {
+        String name = file.getFileName().toString();
+        String sharded = FileStorageService.shardedPath(name);
+        if (sharded.equals(name)) {
+            return;
+        }
+        Path target = root.resolve(sharded);
+        try {
+            Files.createDirectories(target.getParent());
+            if (Files.exists(target)) {
+                // Names are content hashes or UUIDs, so an existing target holds the same bytes
+                Files.delete(file);
+                duplicates.incrementAndGet();
+            } else {
+                Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+                moved.incrementAndGet();
+            }
+        } catch (IOException e) {
+            failed.incrementAndGet();
+            System.err.println("Could not move " + name + ": " + e.getMessage());
+        }
+    }
+
+    // product_images has no key of its own; each distinct URL is rewritten wherever it appears.
+    // Keyset paging over the URL keeps each batch one short transaction.
+    private int rewriteProductImages() {
+        int rewritten = 0;
+        String after = "";
+        while (true) {
+            List<String> urls = jdbcTemplate.queryForList("SELECT DISTINCT image_url FROM product_images "
+                    + "WHERE image_url > ? AND image_url LIKE '/uploads/%' ORDER BY image_url LIMIT ?",
+                    String.class, after, batchSize);
+            if (urls.isEmpty()) {
+                return rewritten;
+            }
+            after = urls.get(urls.size() - 1);
+
+            List<Object[]> updates = new ArrayList<>();
+            for (String url : urls) {
+                String sharded = shardedUrl(url, IMAGE_URL_PREFIX);
+                if (sharded != null) {
+                    updates.add(new Object[] { sharded, url });
+                }
+            }
+            if (!updates.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate
+                        .batchUpdate("UPDATE product_images SET image_url = ? WHERE image_url = ?", updates));
+                rewritten += updates.size();
+            }
+        }
+    }
+
+    private int rewriteById(String select, String update, String prefix) {
+        int rewritten = 0;
+        long after = 0;
+        while (true) {
+            List<Object[]> rows = jdbcTemplate.query(select + " LIMIT ?",
+                    (rs, rowNum) -> new Object[] { rs.getLong(1), rs.getString(2) }, after, batchSize);
+            if (rows.isEmpty()) {
+                return rewritten;
+            }
+            after = (Long) rows.get(rows.size() - 1)[0];
+
+            List<Object[]> updates = new ArrayList<>();
+            for (Object[] row : rows) {
+                String sharded = shardedUrl((String) row[1], prefix);
+                if (sharded != null) {
+                    updates.add(new Object[] { sharded, row[0] });
+                }
+            }
+            if (!updates.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(update, updates));
+                rewritten += updates.size();
+            }
+        }
+    }
+
+    // The sharded URL for a flat one whose file is now in its shard; null when there is nothing to rewrite
+    private String shardedUrl(String url, String prefix) {
+        String name = url.substring(prefix.length());
+        if (name.isEmpty() || name.indexOf('/') >= 0) {
+            return null;
+        }
+        String sharded = FileStorageService.shardedPath(name);
+        if (sharded.equals(name) || !Files.isRegularFile(fileStorageService.getRoot().resolve(sharded))) {
+            return null;
+        }
+        return prefix + sharded;
+    }
+}
@@ -11,7 +11,7 @@ const api = axios.create({
 api.interceptors.request.use((config) => {
   const user = JSON.parse(localStorage.getItem('user'));
   if (user?.token) {
-    // config.headers.Authorization = `Bearer ${user.token}`;
+    config.headers.Authorization = `Bearer ${user.token}`;
   }
 
   // ENCRYPTION DISABLED - Uncomment below to enable
@@ -24,7 +24,7 @@ export const AuthProvider = ({ children }) => {
             toast.success('OTP sent successfully!');
             return true;
         } catch (error) {
-            toast.error('Failed to send OTP. Try again.');
+            toast.error(error.response?.status === 429 ? error.response.data : 'Failed to send OTP. Try again.');
             return false;
         }
     };
@@ -1,16 +1,24 @@
 import React, { useState, useEffect, useRef } from 'react';
 import { useNavigate } from 'react-router-dom';
 import api from '../api';
+import { openSupportSocket, appendMessage } from '../utils/supportSocket';
 import toast from 'react-hot-toast';
 import { Send, X, Search, User, ShoppingBag, Edit } from 'lucide-react';
 
+const TICKET_PAGE_SIZE = 50;
+const USER_PAGE_SIZE = 50;
+const USER_ROLES = ['CUSTOMER', 'STORE_OWNER'];
+
 const AdminDashboard = () => {
     const navigate = useNavigate();
     const [users, setUsers] = useState({ CUSTOMER: [], STORE_OWNER: [] });
+    const [userCursors, setUserCursors] = useState({ CUSTOMER: null, STORE_OWNER: null });
     const [stats, setStats] = useState({});
     const [tickets, setTickets] = useState([]);
+    const [hasMoreTickets, setHasMoreTickets] = useState(false);
     const [loading, setLoading] = useState(true);
     const [searchQuery, setSearchQuery] = useState('');
+    const [searchResults, setSearchResults] = useState([]);
     const [selectedRole, setSelectedRole] = useState('ALL');
     const [activeTab, setActiveTab] = useState('DASHBOARD'); // DASHBOARD, SUPPORT
 
@@ -46,8 +54,15 @@ const AdminDashboard = () => {
     useEffect(() => {
         if (activeTicket) {
             fetchTicketMessages(activeTicket.ticketId);
-            const interval = setInterval(() => fetchTicketMessages(activeTicket.ticketId), 3000);
-            return () => clearInterval(interval);
+            // Live updates over WebSocket; fall back to polling if it drops
+            let interval = null;
+            const closeSocket = openSupportSocket(activeTicket.ticketId,
+                (message) => setTicketMessages(prev => appendMessage(prev, message)),
+                () => { interval = setInterval(() => fetchTicketMessages(activeTicket.ticketId), 3000); });
+            return () => {
+                closeSocket();
+                if (interval) clearInterval(interval);
+            };
         }
     }, [activeTicket]);
 
@@ -61,14 +76,17 @@ const AdminDashboard = () => {
 
     const fetchData = async () => {
         try {
-            const [usersRes, statsRes, ticketsRes] = await Promise.all([
-                api.get('/admin/users'),
+            const [customersRes, ownersRes, statsRes, ticketsRes] = await Promise.all([
+                api.get('/admin/users', { params: { role: 'CUSTOMER', limit: USER_PAGE_SIZE } }),
+                api.get('/admin/users', { params: { role: 'STORE_OWNER', limit: USER_PAGE_SIZE } }),
                 api.get('/admin/stats'),
-                api.get('/support/tickets')
+                api.get('/support/tickets', { params: { limit: TICKET_PAGE_SIZE } })
             ]);
-            setUsers(usersRes.data);
+            setUsers({ CUSTOMER: customersRes.data.users, STORE_OWNER: ownersRes.data.users });
+            setUserCursors({ CUSTOMER: customersRes.data.nextCursor, STORE_OWNER: ownersRes.data.nextCursor });
             setStats(statsRes.data);
             setTickets(ticketsRes.data);
+            setHasMoreTickets(ticketsRes.data.length === TICKET_PAGE_SIZE);
         } catch (error) {
             console.error('Failed to fetch admin data:', error);
             toast.error('Failed to load admin dashboard');
@@ -77,6 +95,62 @@ const AdminDashboard = () => {
         }
     };
 
+    // Server-side prefix search, debounced while typing
+    useEffect(() => {
+        const query = searchQuery.trim();
+        if (!query) {
+            setSearchResults([]);
+            return;
+        }
+        const timer = setTimeout(async () => {
+            try {
+                const res = await api.get('/admin/users/search', {
+                    params: { q: query, role: selectedRole === 'ALL' ? undefined : selectedRole, limit: 50 }
+                });
+                setSearchResults(res.data);
+            } catch (error) {
+                console.error('User search failed:', error);
+            }
+        }, 250);
+        return () => clearTimeout(timer);
+    }, [searchQuery, selectedRole]);
+
+    const loadMoreUsers = async () => {
+        const roles = USER_ROLES.filter(role => userCursors[role] != null && (selectedRole === 'ALL' || selectedRole === role));
+        try {
+            const pages = await Promise.all(roles.map(role =>
+                api.get('/admin/users', { params: { role, cursor: userCursors[role], limit: USER_PAGE_SIZE } })
+            ));
+            setUsers(prev => {
+                const next = { ...prev };
+                roles.forEach((role, i) => { next[role] = [...prev[role], ...pages[i].data.users]; });
+                return next;
+            });
+            setUserCursors(prev => {
+                const next = { ...prev };
+                roles.forEach((role, i) => { next[role] = pages[i].data.nextCursor; });
+                return next;
+            });
+        } catch (error) {
+            toast.error("Failed to load more users");
+        }
+    };
+
+    const hasMoreUsers = !searchQuery.trim() && USER_ROLES.some(role => userCursors[role] != null && (selectedRole === 'ALL' || selectedRole === role));
+
+    const loadMoreTickets = async () => {
+        const last = tickets[tickets.length - 1];
+        try {
+            const res = await api.get('/support/tickets', {
+                params: { beforeUpdatedAt: last.updatedAt, beforeTicketId: last.ticketId, limit: TICKET_PAGE_SIZE }
+            });
+            setTickets(prev => [...prev, ...res.data]);
+            setHasMoreTickets(res.data.length === TICKET_PAGE_SIZE);
+        } catch (error) {
+            toast.error("Failed to load more tickets");
+        }
+    };
+
     const fetchTicketMessages = async (ticketId) => {
         try {
             const res = await api.get(`/support/tickets/${ticketId}/messages`);
@@ -106,21 +180,13 @@ const AdminDashboard = () => {
     };
 
     const filterUsers = () => {
-        let allUsers = [];
-        if (selectedRole === 'ALL') {
-            allUsers = [...users.CUSTOMER, ...users.STORE_OWNER];
-        } else {
-            allUsers = users[selectedRole] || [];
-        }
         if (searchQuery.trim()) {
-            return allUsers.filter(user =>
-                user.firstName?.toLowerCase().includes(searchQuery.toLowerCase()) ||
-                user.lastName?.toLowerCase().includes(searchQuery.toLowerCase()) ||
-                user.email?.toLowerCase().includes(searchQuery.toLowerCase()) ||
-                user.mobileNumber?.includes(searchQuery)
-            );
+            return searchResults;
+        }
+        if (selectedRole === 'ALL') {
+            return [...users.CUSTOMER, ...users.STORE_OWNER];
         }
-        return allUsers;
+        return users[selectedRole] || [];
     };
 
     const filteredUsers = filterUsers();
@@ -182,6 +248,14 @@ const AdminDashboard = () => {
                             <div style={{ fontSize: '2rem', fontWeight: 'bold', color: '#8b5cf6' }}>{stats.totalOrders || 0}</div>
                             <div style={{ color: '#666', marginTop: '0.5rem' }}>Total Orders</div>
                         </div>
+                        <div className="card" style={{ textAlign: 'center', padding: '1.5rem' }}>
+                            <div style={{ fontSize: '2rem', fontWeight: 'bold', color: '#ef4444' }}>{stats.totalStores || 0}</div>
+                            <div style={{ color: '#666', marginTop: '0.5rem' }}>Stores</div>
+                        </div>
+                        <div className="card" style={{ textAlign: 'center', padding: '1.5rem' }}>
+                            <div style={{ fontSize: '2rem', fontWeight: 'bold', color: '#0ea5e9' }}>₹{stats.revenue || 0}</div>
+                            <div style={{ color: '#666', marginTop: '0.5rem' }}>Revenue</div>
+                        </div>
                     </div>
 
                     {/* Manage Screens Cards */}
@@ -283,6 +357,11 @@ const AdminDashboard = () => {
                             ))}
                         </div>
                         {filteredUsers.length === 0 && <p style={{ textAlign: 'center', color: '#999', margin: '2rem' }}>No users found</p>}
+                        {hasMoreUsers && (
+                            <div style={{ textAlign: 'center', marginTop: '1.5rem' }}>
+                                <button className="btn btn-outline" onClick={loadMoreUsers}>Load more users</button>
+                            </div>
+                        )}
                     </div>
                 </>
             ) : (
@@ -316,6 +395,14 @@ const AdminDashboard = () => {
                                 </div>
                             ))
                         )}
+                        {hasMoreTickets && (
+                            <button
+                                onClick={loadMoreTickets}
+                                style={{ width: '100%', padding: '0.75rem', border: 'none', background: '#f8f9fa', cursor: 'pointer', color: 'var(--primary)' }}
+                            >
+                                Load older tickets
+                            </button>
+                        )}
                     </div>
 
                     {/* Chat Window */}
@@ -214,6 +214,7 @@ const AdminUserDetailsPage = () => {
                         <div>
                             <h3 style={{ margin: 0, marginBottom: '0.5rem' }}>Orders</h3>
                             <p style={{ margin: 0, color: '#666', fontSize: '0.9rem' }}>View all orders from this user</p>
+                            <p style={{ margin: '0.5rem 0 0', color: '#666', fontSize: '0.9rem' }}>Lifetime value: ₹{userDetails.lifetimeValue || 0}</p>
                         </div>
                         <div style={{
                             background: 'var(--primary)',
@@ -227,7 +228,7 @@ const AdminUserDetailsPage = () => {
                             fontSize: '1.5rem',
                             fontWeight: 'bold'
                         }}>
-                            {userDetails.orders?.length || 0}
+                            {userDetails.orderCount || 0}
                         </div>
                     </div>
                     <div style={{ fontSize: '0.85rem', color: '#888', marginTop: '1rem' }}>
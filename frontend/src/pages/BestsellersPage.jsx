@@ -143,7 +143,7 @@ const BestsellersPage = () => {
                         >
                             {product.imageUrls && product.imageUrls.length > 0 ? (
                                 <img
-                                    src={`http://localhost:8080${product.imageUrls[0]}`}
+                                    src={`http://localhost:8080${product.imageUrls[0]}?size=thumb`}
                                     alt={product.productName}
                                     style={{
                                         width: '100%',
@@ -68,7 +68,7 @@ const CartPage = () => {
                             <div key={item.itemId} style={{ display: 'flex', gap: '1rem', borderBottom: '1px solid #eee', paddingBottom: '1rem', marginBottom: '1rem' }}>
                                 <div style={{ width: '80px', height: '80px', background: '#f9f9f9', borderRadius: '8px', overflow: 'hidden' }}>
                                     {item.imageUrl ? (
-                                        <img src={`http://localhost:8080${item.imageUrl}`} alt={item.productName} style={{ width: '100%', height: '100%', objectFit: 'cover' }} />
+                                        <img src={`http://localhost:8080${item.imageUrl}?size=thumb`} alt={item.productName} style={{ width: '100%', height: '100%', objectFit: 'cover' }} />
                                     ) : (
                                         <div style={{ display: 'flex', alignItems: 'center', justifyContent: 'center', height: '100%', color: '#ccc' }}>Img</div>
                                     )}
@@ -109,7 +109,7 @@ const CustomerDashboard = () => {
                                                 style={{ height: '200px', background: '#f9f9f9', marginBottom: '1rem', borderRadius: '8px', overflow: 'hidden' }}
                                             >
                                                 {product.imageUrls && product.imageUrls.length > 0 ? (
-                                                    <img src={`http://localhost:8080${product.imageUrls[0]}`} alt={product.productName} style={{ width: '100%', height: '100%', objectFit: 'cover' }} />
+                                                    <img src={`http://localhost:8080${product.imageUrls[0]}?size=thumb`} alt={product.productName} style={{ width: '100%', height: '100%', objectFit: 'cover' }} />
                                                 ) : (
                                                     <div style={{ width: '100%', height: '100%', display: 'flex', alignItems: 'center', justifyContent: 'center', color: '#ccc' }}>No Image</div>
                                                 )}
@@ -151,7 +151,7 @@ const CustomerDashboard = () => {
                                         <div style={{ display: 'flex', alignItems: 'center', gap: '1rem', marginBottom: '1rem' }}>
                                             <div style={{ width: '60px', height: '60px', borderRadius: '50%', background: '#eee', overflow: 'hidden' }}>
                                                 {store.storeLogoUrl ? (
-                                                    <img src={`http://localhost:8080${store.storeLogoUrl}`} alt={store.storeName} style={{ width: '100%', height: '100%', objectFit: 'cover' }} />
+                                                    <img src={`http://localhost:8080${store.storeLogoUrl}?size=thumb`} alt={store.storeName} style={{ width: '100%', height: '100%', objectFit: 'cover' }} />
                                                 ) : (
                                                     <div style={{ width: '100%', height: '100%', display: 'flex', alignItems: 'center', justifyContent: 'center', fontSize: '1.5rem' }}>🏪</div>
                                                 )}
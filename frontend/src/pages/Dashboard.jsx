@@ -53,7 +53,7 @@ const Dashboard = () => {
                             <div className="card" style={{ textAlign: 'center' }}>
                                 {store.storeLogoUrl && (
                                     <img
-                                        src={`http://localhost:8080${store.storeLogoUrl}`}
+                                        src={`http://localhost:8080${store.storeLogoUrl}?size=thumb`}
                                         alt="Store Logo"
                                         style={{ width: '100px', height: '100px', borderRadius: '50%', objectFit: 'cover', marginBottom: '1rem' }}
                                     />
@@ -1,6 +1,7 @@
 import React, { useState, useEffect, useRef } from 'react';
 import { useAuth } from '../context/AuthContext';
 import api from '../api';
+import { openSupportSocket, appendMessage } from '../utils/supportSocket';
 import toast from 'react-hot-toast';
 import { MessageSquare, Send, X, Clock, ChevronRight } from 'lucide-react';
 
@@ -34,9 +35,15 @@ const HelpPage = () => {
         if (activeTicket) {
             fetchMessages();
             markTicketRead(activeTicket.ticketId);
-            // Poll for new messages every 3 seconds
-            const interval = setInterval(() => fetchMessages(), 3000); // Only fetch, read marked once on entry or manual
-            return () => clearInterval(interval);
+            // Live updates over WebSocket; fall back to polling every 3 seconds if it drops
+            let interval = null;
+            const closeSocket = openSupportSocket(activeTicket.ticketId,
+                (message) => setMessages(prev => appendMessage(prev, message)),
+                () => { interval = setInterval(() => fetchMessages(), 3000); });
+            return () => {
+                closeSocket();
+                if (interval) clearInterval(interval);
+            };
         }
     }, [activeTicket]);
 
@@ -685,7 +685,7 @@ const ProductCard = ({ product, onEdit, onSimilar }) => {
                 {product.imageUrls && product.imageUrls.length > 0 ? (
                     <>
                         <img
-                            src={`http://localhost:8080${product.imageUrls[currentImageIndex]}`}
+                            src={`http://localhost:8080${product.imageUrls[currentImageIndex]}?size=thumb`}
                             alt={product.productName}
                             style={{ height: '100%', width: '100%', objectFit: 'cover' }}
                         />
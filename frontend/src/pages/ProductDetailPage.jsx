@@ -122,7 +122,7 @@ const ProductDetailPage = () => {
     }
 
     const currentImage = product.imageUrls && product.imageUrls.length > 0
-        ? `http://localhost:8080${product.imageUrls[activeImageIndex]}`
+        ? `http://localhost:8080${product.imageUrls[activeImageIndex]}?size=medium`
         : null;
 
     return (
@@ -182,7 +182,7 @@ const ProductDetailPage = () => {
                                         opacity: activeImageIndex === idx ? 1 : 0.6
                                     }}
                                 >
-                                    <img src={`http://localhost:8080${url}`} alt="" style={{ width: '100%', height: '100%', objectFit: 'cover' }} />
+                                    <img src={`http://localhost:8080${url}?size=thumb`} alt="" style={{ width: '100%', height: '100%', objectFit: 'cover' }} />
                                 </div>
                             ))}
                         </div>
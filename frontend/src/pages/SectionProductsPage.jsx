@@ -426,7 +426,7 @@ const SectionProductsPage = () => {
                                                         >
                                                             {product.imageUrls && product.imageUrls.length > 0 ? (
                                                                 <img
-                                                                    src={`http://localhost:8080${product.imageUrls[0]}`}
+                                                                    src={`http://localhost:8080${product.imageUrls[0]}?size=thumb`}
                                                                     alt={product.productName}
                                                                     style={{ width: '100%', height: '100%', objectFit: 'cover' }}
                                                                 />
@@ -544,7 +544,7 @@ const SectionProductsPage = () => {
                                                         >
                                                             {product.imageUrls && product.imageUrls.length > 0 ? (
                                                                 <img
-                                                                    src={`http://localhost:8080${product.imageUrls[0]}`}
+                                                                    src={`http://localhost:8080${product.imageUrls[0]}?size=thumb`}
                                                                     alt={product.productName}
                                                                     style={{ width: '100%', height: '100%', objectFit: 'cover' }}
                                                                 />
@@ -112,7 +112,7 @@ const StorePage = () => {
                 <div style={{ display: 'flex', alignItems: 'center', gap: '1.5rem' }}>
                     <div style={{ width: '80px', height: '80px', borderRadius: '50%', background: '#eee', overflow: 'hidden', border: '2px solid #fff', boxShadow: '0 2px 8px rgba(0,0,0,0.1)' }}>
                         {store.storeLogoUrl ? (
-                            <img src={`http://localhost:8080${store.storeLogoUrl}`} alt={store.storeName} style={{ width: '100%', height: '100%', objectFit: 'cover' }} />
+                            <img src={`http://localhost:8080${store.storeLogoUrl}?size=thumb`} alt={store.storeName} style={{ width: '100%', height: '100%', objectFit: 'cover' }} />
                         ) : (
                             <div style={{ width: '100%', height: '100%', display: 'flex', alignItems: 'center', justifyContent: 'center', fontSize: '2rem' }}>🏪</div>
                         )}
@@ -159,7 +159,7 @@ const StorePage = () => {
                             style={{ height: '200px', background: '#f9f9f9', marginBottom: '1rem', borderRadius: '8px', overflow: 'hidden' }}
                         >
                             {product.imageUrls && product.imageUrls.length > 0 ? (
-                                <img src={`http://localhost:8080${product.imageUrls[0]}`} alt={product.productName} style={{ width: '100%', height: '100%', objectFit: 'cover' }} />
+                                <img src={`http://localhost:8080${product.imageUrls[0]}?size=thumb`} alt={product.productName} style={{ width: '100%', height: '100%', objectFit: 'cover' }} />
                             ) : (
                                 <div style={{ width: '100%', height: '100%', display: 'flex', alignItems: 'center', justifyContent: 'center', color: '#ccc' }}>No Image</div>
                             )}
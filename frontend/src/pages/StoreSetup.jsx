@@ -102,7 +102,7 @@ const StoreSetup = () => {
                     <label>Store Logo (Image)</label>
                     {existingStore && existingStore.storeLogoUrl && (
                         <div style={{ marginBottom: '0.5rem' }}>
-                            <img src={`http://localhost:8080${existingStore.storeLogoUrl}`} alt="Current" height="50" />
+                            <img src={`http://localhost:8080${existingStore.storeLogoUrl}?size=thumb`} alt="Current" height="50" />
                             <small style={{ display: 'block', color: '#666' }}>Current Logo</small>
                         </div>
                     )}
@@ -4,11 +4,15 @@ import api from '../api';
 import toast from 'react-hot-toast';
 import { ArrowLeft, Clock, LogIn, LogOut } from 'lucide-react';
 
+const SUMMARY_DAYS = 30;
+const RECENT_SESSION_LIMIT = 50;
+
 const UserLoginStatsPage = () => {
     const { userId } = useParams();
     const navigate = useNavigate();
     const [userDetails, setUserDetails] = useState(null);
     const [sessions, setSessions] = useState([]);
+    const [dailyActivity, setDailyActivity] = useState([]);
     const [loading, setLoading] = useState(true);
     const [stats, setStats] = useState({
         totalSessions: 0,
@@ -21,15 +25,23 @@ const UserLoginStatsPage = () => {
         fetchData();
     }, [userId]);
 
+    // Totals come from the server-side daily rollups; only the most recent sessions are fetched raw
     const fetchData = async () => {
         try {
-            const [userRes, sessionsRes] = await Promise.all([
-                api.get(`/admin/users/${userId}`),
-                api.get(`/login-sessions/user/${userId}`)
+            const [userRes, sessionsRes, summaryRes] = await Promise.all([
+                api.get(`/admin/users/${userId}`, { params: { recentOrders: 0 } }),
+                api.get(`/login-sessions/user/${userId}`, { params: { limit: RECENT_SESSION_LIMIT } }),
+                api.get(`/login-sessions/user/${userId}/summary`, { params: { days: SUMMARY_DAYS } })
             ]);
             setUserDetails(userRes.data);
             setSessions(sessionsRes.data);
-            calculateStats(sessionsRes.data);
+            setDailyActivity(summaryRes.data.daily);
+            setStats({
+                totalSessions: summaryRes.data.totalSessions,
+                avgDuration: summaryRes.data.avgDurationSeconds,
+                totalDuration: summaryRes.data.totalDurationSeconds,
+                activeSessions: summaryRes.data.activeSessions
+            });
         } catch (error) {
             console.error('Error loading login stats:', error);
             toast.error('Failed to load login statistics');
@@ -38,22 +50,6 @@ const UserLoginStatsPage = () => {
         }
     };
 
-    const calculateStats = (sessionData) => {
-        const totalSessions = sessionData.length;
-        const activeSessions = sessionData.filter(s => !s.logoutTime).length;
-
-        const completedSessions = sessionData.filter(s => s.logoutTime);
-        const totalDuration = completedSessions.reduce((sum, s) => sum + (s.durationInSeconds || 0), 0);
-        const avgDuration = completedSessions.length > 0 ? totalDuration / completedSessions.length : 0;
-
-        setStats({
-            totalSessions,
-            avgDuration,
-            totalDuration,
-            activeSessions
-        });
-    };
-
     const formatDuration = (seconds) => {
         if (!seconds) return '-';
         const hours = Math.floor(seconds / 3600);
@@ -112,8 +108,47 @@ const UserLoginStatsPage = () => {
                     </div>
                 </div>
 
+                <p style={{ color: '#888', fontSize: '0.85rem', marginTop: '-1rem', marginBottom: '2rem' }}>
+                    Totals cover the last {SUMMARY_DAYS} days
+                </p>
+
+                {/* Daily Activity */}
+                <h2 style={{ marginBottom: '1rem' }}>Daily Activity</h2>
+                <div style={{ border: '1px solid #eee', borderRadius: '8px', overflow: 'hidden', marginBottom: '2rem' }}>
+                    {dailyActivity.length === 0 ? (
+                        <div style={{ padding: '3rem', textAlign: 'center', color: '#888' }}>
+                            No login activity in the last {SUMMARY_DAYS} days
+                        </div>
+                    ) : (
+                        <table style={{ width: '100%', borderCollapse: 'collapse', fontSize: '0.95rem' }}>
+                            <thead style={{ background: '#f3f4f6' }}>
+                                <tr>
+                                    <th style={{ padding: '1rem', textAlign: 'left' }}>Date</th>
+                                    <th style={{ padding: '1rem', textAlign: 'left' }}>Sessions</th>
+                                    <th style={{ padding: '1rem', textAlign: 'left' }}>Time Logged In</th>
+                                    <th style={{ padding: '1rem', textAlign: 'left' }}>IP Addresses</th>
+                                    <th style={{ padding: '1rem', textAlign: 'left' }}>Devices</th>
+                                </tr>
+                            </thead>
+                            <tbody>
+                                {dailyActivity.map(day => (
+                                    <tr key={day.activityDate} style={{ borderBottom: '1px solid #eee' }}>
+                                        <td style={{ padding: '1rem', fontWeight: 'bold' }}>
+                                            {new Date(day.activityDate).toLocaleDateString()}
+                                        </td>
+                                        <td style={{ padding: '1rem' }}>{day.sessionCount}</td>
+                                        <td style={{ padding: '1rem' }}>{formatDuration(day.totalDurationSeconds)}</td>
+                                        <td style={{ padding: '1rem' }}>{day.distinctIps}</td>
+                                        <td style={{ padding: '1rem' }}>{day.distinctUserAgents}</td>
+                                    </tr>
+                                ))}
+                            </tbody>
+                        </table>
+                    )}
+                </div>
+
                 {/* Sessions Table */}
-                <h2 style={{ marginBottom: '1rem' }}>Session History</h2>
+                <h2 style={{ marginBottom: '1rem' }}>Recent Sessions</h2>
                 <div style={{ border: '1px solid #eee', borderRadius: '8px', overflow: 'hidden' }}>
                     {sessions.length === 0 ? (
                         <div style={{ padding: '3rem', textAlign: 'center', color: '#888' }}>
@@ -4,10 +4,14 @@ import api from '../api';
 import toast from 'react-hot-toast';
 import { ArrowLeft, Search } from 'lucide-react';
 
+const ORDER_PAGE_SIZE = 50;
+
 const UserOrdersPage = () => {
     const { userId } = useParams();
     const navigate = useNavigate();
     const [userDetails, setUserDetails] = useState(null);
+    const [orders, setOrders] = useState([]);
+    const [nextCursor, setNextCursor] = useState(null);
     const [loading, setLoading] = useState(true);
     const [orderSearch, setOrderSearch] = useState('');
 
@@ -17,8 +21,13 @@ const UserOrdersPage = () => {
 
     const fetchUserDetails = async () => {
         try {
-            const res = await api.get(`/admin/users/${userId}`);
-            setUserDetails(res.data);
+            const [userRes, ordersRes] = await Promise.all([
+                api.get(`/admin/users/${userId}`, { params: { recentOrders: 0 } }),
+                api.get(`/admin/users/${userId}/orders`, { params: { limit: ORDER_PAGE_SIZE } })
+            ]);
+            setUserDetails(userRes.data);
+            setOrders(ordersRes.data.orders);
+            setNextCursor(ordersRes.data.nextCursor);
         } catch (error) {
             toast.error('Failed to load user details');
         } finally {
@@ -26,20 +35,29 @@ const UserOrdersPage = () => {
         }
     };
 
+    const loadMoreOrders = async () => {
+        try {
+            const res = await api.get(`/admin/users/${userId}/orders`, { params: { cursor: nextCursor, limit: ORDER_PAGE_SIZE } });
+            setOrders(prev => [...prev, ...res.data.orders]);
+            setNextCursor(res.data.nextCursor);
+        } catch (error) {
+            toast.error("Failed to load more orders");
+        }
+    };
+
     const handleUpdateOrderStatus = async (orderId, newStatus) => {
         try {
             await api.put(`/orders/${orderId}/status`, { status: newStatus });
             toast.success("Order status updated");
-            fetchUserDetails();
+            setOrders(prev => prev.map(order => order.orderId === orderId ? { ...order, status: newStatus } : order));
         } catch (error) {
             toast.error("Failed to update status");
         }
     };
 
     const getFilteredOrders = () => {
-        if (!userDetails?.orders) return [];
-        if (!orderSearch.trim()) return userDetails.orders;
-        return userDetails.orders.filter(order =>
+        if (!orderSearch.trim()) return orders;
+        return orders.filter(order =>
             order.orderId.toString().includes(orderSearch)
         );
     };
@@ -67,7 +85,7 @@ const UserOrdersPage = () => {
                 <p style={{ color: '#666', marginBottom: '2rem' }}>User ID: {userDetails.userId} | Email: {userDetails.email}</p>
 
                 <div style={{ display: 'flex', justifyContent: 'space-between', alignItems: 'center', marginBottom: '1.5rem' }}>
-                    <h2 style={{ margin: 0 }}>All Orders ({userDetails.orders?.length || 0})</h2>
+                    <h2 style={{ margin: 0 }}>All Orders ({userDetails.orderCount || 0})</h2>
                     <div style={{ position: 'relative' }}>
                         <Search size={18} style={{ position: 'absolute', left: '10px', top: '50%', transform: 'translateY(-50%)', color: '#888' }} />
                         <input
@@ -125,14 +143,13 @@ const UserOrdersPage = () => {
                                             </td>
                                         ) : (
                                             <td style={{ padding: '1rem' }}>
-                                                <div style={{ fontWeight: '500' }}>{order.store?.storeName || 'N/A'}</div>
-                                                <div style={{ fontSize: '0.85rem', color: '#888' }}>{order.store?.ownerName || ''}</div>
+                                                <div style={{ fontWeight: '500' }}>{order.storeName || 'N/A'}</div>
                                             </td>
                                         )}
                                         <td style={{ padding: '1rem' }}>
                                             {order.items?.map((item, idx) => (
                                                 <div key={idx} style={{ fontSize: '0.9rem' }}>
-                                                    {item.product?.productName} (x{item.quantity})
+                                                    {item.productName} (x{item.quantity})
                                                 </div>
                                             ))}
                                         </td>
@@ -174,6 +191,11 @@ const UserOrdersPage = () => {
                         </table>
                     )}
                 </div>
+                {nextCursor && (
+                    <div style={{ textAlign: 'center', marginTop: '1.5rem' }}>
+                        <button className="btn btn-outline" onClick={loadMoreOrders}>Load older orders</button>
+                    </div>
+                )}
             </div>
         </div>
     );
@@ -20,7 +20,7 @@ const UserRequestsPage = () => {
     const fetchData = async () => {
         try {
             const [userRes, profileRes, supportRes] = await Promise.all([
-                api.get(`/admin/users/${userId}`),
+                api.get(`/admin/users/${userId}`, { params: { recentOrders: 0 } }),
                 api.get(`/profile-requests/user/${userId}`),
                 api.get(`/support/tickets?userId=${userId}`)
             ]);
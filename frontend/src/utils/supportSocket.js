@@ -0,0 +1,23 @@
+import api from '../api';
+
+// Opens the live chat room for a support ticket. Returns a function that closes it.
+export const openSupportSocket = (ticketId, onMessage, onDisconnect) => {
+    const wsBase = api.defaults.baseURL.replace(/^http/, 'ws').replace(/\/api\/?$/, '');
+    const socket = new WebSocket(`${wsBase}/ws/support/${ticketId}`);
+
+    socket.onmessage = (event) => {
+        const data = JSON.parse(event.data);
+        if (!data.error) {
+            onMessage(data);
+        }
+    };
+    socket.onclose = () => onDisconnect?.();
+
+    return () => {
+        socket.onclose = null;
+        socket.close();
+    };
+};
+
+export const appendMessage = (messages, message) =>
+    messages.some(m => m.messageId === message.messageId) ? messages : [...messages, message];